@@ -0,0 +1,92 @@
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+import java.util.function.Supplier;
+
+public class DataFileParserWorkload {
+    static Path generated(int megabytes) {
+        try {
+            Path file = Path.of(System.getProperty("java.io.tmpdir"), "savings-bench-" + megabytes + "mb.txt");
+            if (!Files.exists(file)) {
+                DataGenerator.generate(file, (long) megabytes << 20, 42L);
+            }
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Supplier<Object> scannerParser(int megabytes) {
+        Path file = generated(megabytes);
+        return () -> {
+            int periodCount = 0;
+            long checksum = 0;
+            try (Scanner sc = new Scanner(new FileReader(file.toFile()))) {
+                while (sc.hasNextLine()) {
+                    String line = sc.nextLine().trim();
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    String[] tokens = line.split("\\s+");
+                    if (line.startsWith("LATA")) {
+                        periodCount = tokens.length - 1;
+                        continue;
+                    }
+                    List<Double> values = new ArrayList<>();
+                    for (int i = 1; i < tokens.length; i++) {
+                        try {
+                            values.add(Double.parseDouble(tokens[i]));
+                        } catch (NumberFormatException ex) {
+                        }
+                    }
+                    double[] arr = new double[periodCount];
+                    for (int i = 0; i < periodCount; i++) {
+                        arr[i] = i < values.size() ? values.get(i) : (values.isEmpty() ? 0.0 : values.get(values.size() - 1));
+                    }
+                    checksum += arr.length;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return checksum;
+        };
+    }
+
+    public static Supplier<Object> streamingParser(int megabytes) {
+        Path file = generated(megabytes);
+        return () -> {
+            int[] periodCount = new int[1];
+            long[] checksum = new long[1];
+            try {
+                DataFileParser.parse(file, new DataFileParser.Handler() {
+                    @Override
+                    public void onPeriodLabels(List<String> labels) {
+                        periodCount[0] = labels.size();
+                    }
+
+                    @Override
+                    public void onVariable(String name, double[] values, int count) {
+                        double[] arr = new double[periodCount[0]];
+                        int copied = Math.min(count, arr.length);
+                        System.arraycopy(values, 0, arr, 0, copied);
+                        Arrays.fill(arr, copied, arr.length, count == 0 ? 0.0 : values[count - 1]);
+                        checksum[0] += arr.length;
+                    }
+
+                    @Override
+                    public void onInvalidValue(String name, String token) {
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return checksum[0];
+        };
+    }
+}
@@ -0,0 +1,136 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+public class DataGenerator {
+    private static final int BYTES_PER_PERIOD = 32;
+
+    public static Path generate(Path file, long targetBytes, long seed) throws IOException {
+        return generate(file, "ModelSavings", periodsFor(targetBytes), seed);
+    }
+
+    public static Path generate(Path file, String modelName, int periods, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("LATA");
+            for (int i = 0; i < periods; i++) {
+                int year = 2024 + i / 12;
+                int month = i % 12 + 1;
+                out.write(' ');
+                out.write(Integer.toString(year));
+                out.write(month < 10 ? "_0" : "_");
+                out.write(Integer.toString(month));
+            }
+            out.newLine();
+
+            switch (modelName) {
+                case "ModelSavings":
+                    writeSavings(out, periods, random);
+                    break;
+                case "Model2":
+                    writeWalk(out, "capital", periods, random, 100_000, 1_000);
+                    writeRates(out, "growthRate", periods, random, 103, 4);
+                    break;
+                case "Model3":
+                    writeWalk(out, "debt", periods, random, 1_000_000, 50_000);
+                    writeRates(out, "interest", periods, random, 5, 5);
+                    break;
+                case "Model4":
+                    writeWalk(out, "inflow", periods, random, 500_000, 20_000);
+                    writeWalk(out, "outflow", periods, random, 400_000, 20_000);
+                    break;
+                default:
+                    throw new IllegalArgumentException("No generator for model " + modelName);
+            }
+        }
+        return file;
+    }
+
+    private static void writeSavings(BufferedWriter out, int periods, SplittableRandom random) throws IOException {
+        out.write("monthlyIncome");
+        for (int i = 0; i < periods; i++) {
+            out.write(' ');
+            out.write(Integer.toString(4000 + 50 * random.nextInt(40)));
+        }
+        out.newLine();
+
+        out.write("savingFraction 0.20");
+        out.newLine();
+
+        writeWalk(out, "ethereumDollar", periods, random, 300_000, 5_000);
+
+        out.write("ETHquantity 0.5");
+        out.newLine();
+
+        out.write("bankDeposit");
+        for (int i = 0; i < periods; i++) {
+            out.write(' ');
+            out.write(Integer.toString(2000 + 100 * (i % 20)));
+        }
+        out.newLine();
+
+        out.write("bankDepositRate 0.01");
+        out.newLine();
+        out.write("initialSavings 1500 0");
+        out.newLine();
+    }
+
+    private static void writeWalk(BufferedWriter out, String name, int periods, SplittableRandom random,
+                                  long startCents, int stepCents) throws IOException {
+        out.write(name);
+        long cents = startCents;
+        for (int i = 0; i < periods; i++) {
+            cents = Math.max(100, cents + random.nextInt(-stepCents, stepCents + 1));
+            out.write(' ');
+            writeHundredths(out, cents);
+        }
+        out.newLine();
+    }
+
+    private static void writeRates(BufferedWriter out, String name, int periods, SplittableRandom random,
+                                   int basePercent, int spreadPercent) throws IOException {
+        out.write(name);
+        for (int i = 0; i < periods; i++) {
+            out.write(' ');
+            writeHundredths(out, basePercent + random.nextInt(spreadPercent + 1));
+        }
+        out.newLine();
+    }
+
+    private static void writeHundredths(BufferedWriter out, long value) throws IOException {
+        out.write(Long.toString(value / 100));
+        out.write('.');
+        long fraction = value % 100;
+        out.write(fraction < 10 ? "0" : "");
+        out.write(Long.toString(fraction));
+    }
+
+    private static int periodsFor(long targetBytes) {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE - 8, targetBytes / BYTES_PER_PERIOD));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: DataGenerator <outputFile> <sizeInMegabytes>|<periods>p [seed] [--model ModelSavings|Model2|Model3|Model4]");
+            System.exit(2);
+        }
+        String size = args[1];
+        long seed = 42L;
+        String modelName = "ModelSavings";
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--model")) {
+                modelName = args[++i];
+            } else {
+                seed = Long.parseLong(args[i]);
+            }
+        }
+        int periods = size.endsWith("p") ? Integer.parseInt(size.substring(0, size.length() - 1)) : periodsFor(Long.parseLong(size) << 20);
+        Path file = generate(Paths.get(args[0]), modelName, periods, seed);
+        System.out.println("Generated " + periods + " periods (" + Files.size(file) + " bytes) of " + modelName + " data into " + file);
+    }
+}
@@ -0,0 +1,30 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+public class ExportWorkload {
+    private static Controller loaded(int megabytes) {
+        Path file = DataFileParserWorkload.generated(megabytes);
+        return new Controller("ModelSavings", LogSink.NONE).readDataFrom(file.toString()).runModel();
+    }
+
+    public static Supplier<Object> tsvString(int megabytes) {
+        Controller controller = loaded(megabytes);
+        return () -> controller.getResultsAsTsv().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    public static Supplier<Object> streamingExport(int megabytes, String format) {
+        Controller controller = loaded(megabytes);
+        ResultsExporter.Format exportFormat = ResultsExporter.Format.valueOf(format);
+        return () -> {
+            try {
+                return controller.exportResults(ResultsExporter.to(OutputStream.nullOutputStream(), exportFormat, null));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
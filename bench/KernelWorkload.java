@@ -0,0 +1,59 @@
+import java.util.Random;
+import java.util.function.Supplier;
+
+public class KernelWorkload {
+    private static ModelKernels kernels(String name) {
+        ModelKernels kernels = name.equals("scalar") ? ModelKernels.SCALAR : ModelKernels.vector(name.equals("vector-scan"));
+        if (kernels == null) {
+            throw new IllegalStateException("Vector kernels need --add-modules " + ModelKernels.VECTOR_MODULE);
+        }
+        return kernels;
+    }
+
+    private static double[] series(int periods, long seed, double base, double spread) {
+        Random random = new Random(seed);
+        double[] values = new double[periods];
+        for (int i = 0; i < periods; i++) {
+            values[i] = base + random.nextDouble() * spread;
+        }
+        return values;
+    }
+
+    public static Supplier<Object> multiply(int periods, String name) {
+        ModelKernels kernels = kernels(name);
+        double[] capital = series(periods, 1, 1000, 500);
+        double[] growthRate = series(periods, 2, 1, 0.1);
+        double[] result = new double[periods];
+        return () -> {
+            kernels.multiply(capital, growthRate, result, 0, periods);
+            return result;
+        };
+    }
+
+    public static Supplier<Object> multiplyByOnePlus(int periods, String name) {
+        ModelKernels kernels = kernels(name);
+        double[] debt = series(periods, 3, 5000, 1000);
+        double[] interest = series(periods, 4, 0, 0.05);
+        double[] newDebt = new double[periods];
+        return () -> {
+            kernels.multiplyByOnePlus(debt, interest, newDebt, 0, periods);
+            return newDebt;
+        };
+    }
+
+    public static Supplier<Object> accumulateSavings(int periods, String name) {
+        ModelKernels kernels = kernels(name);
+        double[] income = series(periods, 5, 4000, 2000);
+        double[] fraction = series(periods, 6, 0.1, 0.2);
+        double[] price = series(periods, 7, 2000, 1500);
+        double[] quantity = series(periods, 8, 0, 2);
+        double[] deposit = series(periods, 9, 10000, 5000);
+        double[] depositRate = series(periods, 10, 0, 0.005);
+        double[] initial = new double[periods];
+        double[] totals = new double[periods];
+        return () -> {
+            kernels.accumulateSavings(income, fraction, price, quantity, deposit, depositRate, initial, totals, 1, periods);
+            return totals;
+        };
+    }
+}
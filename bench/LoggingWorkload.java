@@ -0,0 +1,70 @@
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+public class LoggingWorkload {
+    private static final int VALUES = 100_000;
+
+    private static LogSink warningsOnly() {
+        return new LogSink() {
+            private long messages;
+
+            @Override
+            public void log(LogLevel level, String message) {
+                messages += message.length();
+            }
+
+            @Override
+            public boolean isEnabled(LogLevel level) {
+                return level != LogLevel.INFO;
+            }
+
+            @Override
+            public String toString() {
+                return Long.toString(messages);
+            }
+        };
+    }
+
+    public static Supplier<Object> eagerConcatenation() {
+        LogSink sink = warningsOnly();
+        double[] values = new double[VALUES];
+        String name = "monthlyIncome";
+        return () -> {
+            String message = "Set " + name + " = " + Arrays.toString(values);
+            if (sink.isEnabled(LogLevel.INFO)) {
+                sink.log(LogLevel.INFO, message);
+            }
+            return sink;
+        };
+    }
+
+    public static Supplier<Object> disabledParameterized() {
+        LogSink sink = warningsOnly();
+        double[] values = new double[VALUES];
+        String name = "monthlyIncome";
+        return () -> {
+            sink.log(LogLevel.INFO, "Set {} = {}", name, values);
+            return sink;
+        };
+    }
+
+    public static Supplier<Object> disabledSupplier() {
+        LogSink sink = warningsOnly();
+        double[] values = new double[VALUES];
+        String name = "monthlyIncome";
+        return () -> {
+            sink.log(LogLevel.INFO, () -> "Set " + name + " = " + LogFormat.preview(values));
+            return sink;
+        };
+    }
+
+    public static Supplier<Object> enabledParameterized() {
+        LogSink sink = warningsOnly();
+        double[] values = new double[VALUES];
+        String name = "monthlyIncome";
+        return () -> {
+            sink.log(LogLevel.WARNING, "Set {} = {}", name, values);
+            return sink;
+        };
+    }
+}
@@ -0,0 +1,57 @@
+import java.lang.reflect.Field;
+import java.util.function.Supplier;
+
+public class ModelBindingsWorkload {
+    private static final int PERIODS = 28;
+
+    public static Supplier<Object> reflectiveBindCycle() {
+        ModelSavings model = new ModelSavings(LogSink.NONE);
+        double[] values = new double[PERIODS];
+        return () -> {
+            Object last = null;
+            try {
+                for (Field f : ModelSavings.class.getDeclaredFields()) {
+                    if (f.isAnnotationPresent(Bind.class)) {
+                        f.setAccessible(true);
+                        if (f.getName().equals(ModelBindings.FIELD_LL)) {
+                            f.setInt(model, values.length);
+                        } else if (f.getType() == double[].class) {
+                            f.set(model, values);
+                        } else if (f.getType() == Series.class) {
+                            f.set(model, Series.of(values));
+                        }
+                    }
+                }
+                for (Field f : ModelSavings.class.getDeclaredFields()) {
+                    if (f.isAnnotationPresent(Bind.class)) {
+                        f.setAccessible(true);
+                        last = f.get(model);
+                    }
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+            return last;
+        };
+    }
+
+    public static Supplier<Object> cachedBindCycle() {
+        ModelSavings model = new ModelSavings(LogSink.NONE);
+        double[] values = new double[PERIODS];
+        return () -> {
+            ModelBindings bindings = ModelBindings.of(ModelSavings.class);
+            Object last = null;
+            for (ModelBindings.Accessor accessor : bindings.all()) {
+                if (accessor.isPeriodCount()) {
+                    accessor.setInt(model, values.length);
+                } else if (accessor.isArray()) {
+                    accessor.setArray(model, values);
+                }
+            }
+            for (ModelBindings.Accessor accessor : bindings.all()) {
+                last = accessor.get(model);
+            }
+            return last;
+        };
+    }
+}
@@ -0,0 +1,90 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class PipelineWorkload {
+    static Path generated(String modelName, int periods) {
+        try {
+            Path file = Path.of(System.getProperty("java.io.tmpdir"), "savings-bench-" + modelName + "-" + periods + "p.txt");
+            if (!Files.exists(file)) {
+                DataGenerator.generate(file, modelName, periods, 42L);
+            }
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Controller loaded(String modelName, int periods) {
+        Controller controller = new Controller(modelName, LogSink.NONE).readDataFrom(generated(modelName, periods).toString());
+        if (controller.getModelVariables().periodCount != periods) {
+            throw new IllegalStateException("Failed to load generated " + modelName + " data");
+        }
+        return controller.runModel();
+    }
+
+    public static Supplier<Object> readDataFrom(String modelName, int periods) {
+        String file = generated(modelName, periods).toString();
+        Controller controller = new Controller(modelName, LogSink.NONE);
+        return () -> controller.readDataFrom(file);
+    }
+
+    public static Supplier<Object> runModel(String modelName, int periods) {
+        Controller controller = loaded(modelName, periods);
+        Controller.ModelVariables modelVar = controller.getModelVariables();
+        String input = modelVar.inputNames.iterator().next();
+        double[] first = {modelVar.values.get(modelVar.names.indexOf(input)).get(0)};
+        return () -> controller.updateVariable(input, 0, first).runModel();
+    }
+
+    public static Supplier<Object> getModelVariables(String modelName, int periods) {
+        Controller controller = loaded(modelName, periods);
+        return controller::getModelVariables;
+    }
+
+    public static Supplier<Object> getResultsAsTsv(String modelName, int periods) {
+        Controller controller = loaded(modelName, periods);
+        return controller::getResultsAsTsv;
+    }
+
+    public static Supplier<Object> runScript(String script, int periods) {
+        Controller controller = loaded("ModelSavings", periods);
+        String code = readScript(script + ".groovy");
+        return () -> controller.runScript(code);
+    }
+
+    public static Supplier<Object> runExpressions(String script, int periods) {
+        Controller controller = loaded("ModelSavings", periods);
+        String code = readScript(script + ".expr");
+        return () -> controller.runExpressions(code);
+    }
+
+    public static Supplier<Object> runExpressionChain(boolean lazy, int periods) {
+        Controller controller = loaded("ModelSavings", periods);
+        controller.setLazyExpressions(lazy);
+        String prefix = lazy ? "let " : "";
+        List<String> steps = List.of(
+                prefix + "income = savingFraction * monthlyIncome",
+                prefix + "eth = diff(ethereumDollar) * ETHquantity",
+                prefix + "flow = income + eth",
+                prefix + "fees = abs(flow) * 0.001",
+                "net = cumsum(flow - fees)");
+        return () -> {
+            for (String step : steps) {
+                controller.runExpressions(step);
+            }
+            return controller.getModelVariables();
+        };
+    }
+
+    private static String readScript(String fileName) {
+        try {
+            return Files.readString(Path.of("scripts", fileName));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Run benchmarks from the project root so scripts/ can be found", e);
+        }
+    }
+}
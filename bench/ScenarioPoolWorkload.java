@@ -0,0 +1,21 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public class ScenarioPoolWorkload {
+    public static Supplier<Object> runSessions(int sessions, int periods, int threads) {
+        String file = PipelineWorkload.generated("ModelSavings", periods).toString();
+        ScenarioPool pool;
+        try {
+            pool = new ScenarioPool(ModelDefinition.of("ModelSavings"), threads, LogSink.NONE);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+        return () -> {
+            CompletableFuture<?>[] results = new CompletableFuture<?>[sessions];
+            for (int i = 0; i < sessions; i++) {
+                results[i] = pool.open("scenario-" + i).submit(controller -> controller.readDataFrom(file).runModel().getModelVariables());
+            }
+            return CompletableFuture.allOf(results).join();
+        };
+    }
+}
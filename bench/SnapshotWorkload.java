@@ -0,0 +1,25 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+public class SnapshotWorkload {
+    private static Path snapshot(int megabytes, String encoding) {
+        Path text = DataFileParserWorkload.generated(megabytes);
+        Path file = text.resolveSibling("savings-bench-" + megabytes + "mb-" + encoding + SnapshotFile.EXTENSION);
+        if (!Files.exists(file)) {
+            new Controller("ModelSavings", LogSink.NONE).readDataFrom(text.toString())
+                    .writeSnapshot(file.toString(), SnapshotFile.Encoding.valueOf(encoding));
+        }
+        return file;
+    }
+
+    public static Supplier<Object> textLoad(int megabytes) {
+        Path file = DataFileParserWorkload.generated(megabytes);
+        return () -> new Controller("ModelSavings", LogSink.NONE).readDataFrom(file.toString()).getModelVariables();
+    }
+
+    public static Supplier<Object> snapshotLoad(int megabytes, String encoding) {
+        Path file = snapshot(megabytes, encoding);
+        return () -> new Controller("ModelSavings", LogSink.NONE).readSnapshotFrom(file.toString()).getModelVariables();
+    }
+}
@@ -0,0 +1,46 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+public class DataFileParserBenchmark {
+    @Param({"1", "100", "1024"})
+    public int megabytes;
+
+    private Supplier<Object> scanner;
+    private Supplier<Object> streaming;
+
+    @Setup
+    public void setup() {
+        scanner = Workloads.load("DataFileParserWorkload", "scannerParser", megabytes);
+        streaming = Workloads.load("DataFileParserWorkload", "streamingParser", megabytes);
+    }
+
+    @Benchmark
+    public Object scannerParser() {
+        return scanner.get();
+    }
+
+    @Benchmark
+    public Object streamingParser() {
+        return streaming.get();
+    }
+}
@@ -0,0 +1,49 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+public class ExportBenchmark {
+    @Param({"1", "100"})
+    public int megabytes;
+
+    @Param({"TSV", "CSV"})
+    public String format;
+
+    private Supplier<Object> string;
+    private Supplier<Object> streaming;
+
+    @Setup
+    public void setup() {
+        string = Workloads.load("ExportWorkload", "tsvString", megabytes);
+        streaming = Workloads.load("ExportWorkload", "streamingExport", megabytes, format);
+    }
+
+    @Benchmark
+    public Object tsvString() {
+        return string.get();
+    }
+
+    @Benchmark
+    public Object streamingExport() {
+        return streaming.get();
+    }
+}
@@ -0,0 +1,42 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ExpressionBenchmark {
+    @Param({"false", "true"})
+    public boolean lazy;
+
+    @Param({"100000", "1000000"})
+    public int periods;
+
+    private Supplier<Object> runExpressionChain;
+
+    @Setup
+    public void setup() {
+        runExpressionChain = Workloads.load("PipelineWorkload", "runExpressionChain", lazy, periods);
+    }
+
+    @Benchmark
+    public Object runExpressionChain() {
+        return runExpressionChain.get();
+    }
+}
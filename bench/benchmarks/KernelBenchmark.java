@@ -0,0 +1,56 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector"})
+public class KernelBenchmark {
+    @Param({"1000", "1000000"})
+    public int periods;
+
+    @Param({"scalar", "vector", "vector-scan"})
+    public String kernels;
+
+    private Supplier<Object> multiply;
+    private Supplier<Object> multiplyByOnePlus;
+    private Supplier<Object> accumulateSavings;
+
+    @Setup
+    public void setup() {
+        multiply = Workloads.load("KernelWorkload", "multiply", periods, kernels);
+        multiplyByOnePlus = Workloads.load("KernelWorkload", "multiplyByOnePlus", periods, kernels);
+        accumulateSavings = Workloads.load("KernelWorkload", "accumulateSavings", periods, kernels);
+    }
+
+    @Benchmark
+    public Object multiply() {
+        return multiply.get();
+    }
+
+    @Benchmark
+    public Object multiplyByOnePlus() {
+        return multiplyByOnePlus.get();
+    }
+
+    @Benchmark
+    public Object accumulateSavings() {
+        return accumulateSavings.get();
+    }
+}
@@ -0,0 +1,56 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+    private Supplier<Object> eagerConcatenation;
+    private Supplier<Object> disabledParameterized;
+    private Supplier<Object> disabledSupplier;
+    private Supplier<Object> enabledParameterized;
+
+    @Setup
+    public void setup() {
+        eagerConcatenation = Workloads.load("LoggingWorkload", "eagerConcatenation");
+        disabledParameterized = Workloads.load("LoggingWorkload", "disabledParameterized");
+        disabledSupplier = Workloads.load("LoggingWorkload", "disabledSupplier");
+        enabledParameterized = Workloads.load("LoggingWorkload", "enabledParameterized");
+    }
+
+    @Benchmark
+    public Object eagerConcatenation() {
+        return eagerConcatenation.get();
+    }
+
+    @Benchmark
+    public Object disabledParameterized() {
+        return disabledParameterized.get();
+    }
+
+    @Benchmark
+    public Object disabledSupplier() {
+        return disabledSupplier.get();
+    }
+
+    @Benchmark
+    public Object enabledParameterized() {
+        return enabledParameterized.get();
+    }
+}
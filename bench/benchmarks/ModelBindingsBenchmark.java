@@ -0,0 +1,42 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBindingsBenchmark {
+    private Supplier<Object> reflective;
+    private Supplier<Object> cached;
+
+    @Setup
+    public void setup() {
+        reflective = Workloads.load("ModelBindingsWorkload", "reflectiveBindCycle");
+        cached = Workloads.load("ModelBindingsWorkload", "cachedBindCycle");
+    }
+
+    @Benchmark
+    public Object reflectiveBindCycle() {
+        return reflective.get();
+    }
+
+    @Benchmark
+    public Object cachedBindCycle() {
+        return cached.get();
+    }
+}
@@ -0,0 +1,63 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class PipelineBenchmark {
+    @Param({"ModelSavings", "Model2", "Model3", "Model4"})
+    public String model;
+
+    @Param({"1000", "100000", "1000000"})
+    public int periods;
+
+    private Supplier<Object> readDataFrom;
+    private Supplier<Object> runModel;
+    private Supplier<Object> getModelVariables;
+    private Supplier<Object> getResultsAsTsv;
+
+    @Setup
+    public void setup() {
+        readDataFrom = Workloads.load("PipelineWorkload", "readDataFrom", model, periods);
+        runModel = Workloads.load("PipelineWorkload", "runModel", model, periods);
+        getModelVariables = Workloads.load("PipelineWorkload", "getModelVariables", model, periods);
+        getResultsAsTsv = Workloads.load("PipelineWorkload", "getResultsAsTsv", model, periods);
+    }
+
+    @Benchmark
+    public Object readDataFrom() {
+        return readDataFrom.get();
+    }
+
+    @Benchmark
+    public Object runModel() {
+        return runModel.get();
+    }
+
+    @Benchmark
+    public Object getModelVariables() {
+        return getModelVariables.get();
+    }
+
+    @Benchmark
+    public Object getResultsAsTsv() {
+        return getResultsAsTsv.get();
+    }
+}
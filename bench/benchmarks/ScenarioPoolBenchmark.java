@@ -0,0 +1,45 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class ScenarioPoolBenchmark {
+    @Param({"100", "10000"})
+    public int sessions;
+
+    @Param({"120"})
+    public int periods;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private Supplier<Object> runSessions;
+
+    @Setup
+    public void setup() {
+        runSessions = Workloads.load("ScenarioPoolWorkload", "runSessions", sessions, periods, threads);
+    }
+
+    @Benchmark
+    public Object runSessions() {
+        return runSessions.get();
+    }
+}
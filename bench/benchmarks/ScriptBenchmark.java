@@ -0,0 +1,49 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ScriptBenchmark {
+    @Param({"incomeSavings", "EthereumProfit"})
+    public String script;
+
+    @Param({"1000", "100000", "1000000"})
+    public int periods;
+
+    private Supplier<Object> runScript;
+    private Supplier<Object> runExpressions;
+
+    @Setup
+    public void setup() {
+        runScript = Workloads.load("PipelineWorkload", "runScript", script, periods);
+        runExpressions = Workloads.load("PipelineWorkload", "runExpressions", script, periods);
+    }
+
+    @Benchmark
+    public Object runScript() {
+        return runScript.get();
+    }
+
+    @Benchmark
+    public Object runExpressions() {
+        return runExpressions.get();
+    }
+}
@@ -0,0 +1,49 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+public class SnapshotBenchmark {
+    @Param({"1", "100"})
+    public int megabytes;
+
+    @Param({"RAW", "XOR", "AUTO"})
+    public String encoding;
+
+    private Supplier<Object> text;
+    private Supplier<Object> snapshot;
+
+    @Setup
+    public void setup() {
+        text = Workloads.load("SnapshotWorkload", "textLoad", megabytes);
+        snapshot = Workloads.load("SnapshotWorkload", "snapshotLoad", megabytes, encoding);
+    }
+
+    @Benchmark
+    public Object textLoad() {
+        return text.get();
+    }
+
+    @Benchmark
+    public Object snapshotLoad() {
+        return snapshot.get();
+    }
+}
@@ -0,0 +1,24 @@
+package benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+final class Workloads {
+    private Workloads() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static Supplier<Object> load(String workloadClass, String factoryMethod, Object... args) {
+        try {
+            Class<?> type = Class.forName(workloadClass);
+            for (Method m : type.getMethods()) {
+                if (m.getName().equals(factoryMethod) && m.getParameterCount() == args.length) {
+                    return (Supplier<Object>) m.invoke(null, args);
+                }
+            }
+            throw new IllegalArgumentException("No workload " + workloadClass + "." + factoryMethod);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create workload " + workloadClass + "." + factoryMethod, e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+public class ModelCompound {
+    @Bind private int LL;
+    @Bind private double[] capital;
+    @Bind private double[] growthRate;
+    @Bind(output = true) private double[] compounded;
+
+    private LogSink logSink;
+
+    public ModelCompound(LogSink logSink) {
+        this.logSink = logSink;
+    }
+
+    public ModelCompound() {
+    }
+
+    public void run() {
+        compounded = new double[LL];
+        runFrom(0);
+    }
+
+    public void runFrom(int from) {
+        if (compounded == null || compounded.length != LL) {
+            compounded = new double[LL];
+            from = 0;
+        }
+        for (int i = Math.max(0, from); i < LL; i++) {
+            double previous = i == 0 ? capital[0] : compounded[i - 1];
+            compounded[i] = previous * growthRate[i];
+        }
+    }
+}
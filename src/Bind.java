@@ -2,4 +2,5 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Bind {
-}
\ No newline at end of file
+    boolean output() default false;
+}
@@ -1,21 +1,41 @@
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.labels.StandardXYItemLabelGenerator;
 import org.jfree.chart.plot.CategoryPlot;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.XYAreaRenderer;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
 import org.jfree.chart.renderer.category.LineAndShapeRenderer;
 import org.jfree.chart.renderer.category.AreaRenderer;
 import org.jfree.chart.labels.StandardCategoryItemLabelGenerator;
 import org.jfree.data.category.DefaultCategoryDataset;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.awt.geom.RoundRectangle2D;
+import java.text.FieldPosition;
+import java.text.NumberFormat;
+import java.text.ParsePosition;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.jfree.chart.plot.PlotOrientation;
 
 public class ChartManager {
-    private HistoryWindow historyWindow;
+    private static final int CATEGORY_LIMIT = Integer.getInteger("savings.chart.categoryLimit", 500);
+    private static final int TARGET_POINTS = 2000;
+    private static final int ITEM_LABEL_LIMIT = 60;
+    private static final Metrics.Stage CHART_BUILD = Metrics.getDefault().stage("chartBuild");
 
-    public ChartManager(HistoryWindow historyWindow) {
-        this.historyWindow = historyWindow;
+    private LogSink logSink;
+    private final Map<ChartPanel, String> openCharts = new LinkedHashMap<>();
+
+    public ChartManager(LogSink logSink) {
+        this.logSink = logSink;
     }
 
     public void generateChart(Controller.ModelVariables modelVar, String chartType) {
@@ -29,15 +49,28 @@ public class ChartManager {
             return;
         }
 
-        JFreeChart chart = createChart(modelVar, chartType);
+        JFreeChart chart = buildChart(modelVar, chartType);
         if (chart != null) {
             displayChart(chart, chartType);
         } else {
-            historyWindow.appendLog("ERROR", "Failed to create the " + chartType + " Chart.");
+            logSink.log(LogLevel.ERROR, "Failed to create the {} Chart.", chartType);
             JOptionPane.showMessageDialog(null, "Failed to create the " + chartType + " Chart.", "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    public void updateCharts(Controller.ModelVariables modelVar) {
+        for (Map.Entry<ChartPanel, String> entry : openCharts.entrySet()) {
+            String chartType = entry.getValue();
+            boolean available = chartType.equals("LINE") ? modelVar.names.contains("totalSavings") : hasRequiredAreaChartData(modelVar);
+            if (available) {
+                entry.getKey().setChart(buildChart(modelVar, chartType));
+            }
+        }
+        if (!openCharts.isEmpty()) {
+            logSink.log(LogLevel.INFO, "Refreshed {} open chart(s).", openCharts.size());
+        }
+    }
+
     private boolean hasRequiredAreaChartData(Controller.ModelVariables modelVar) {
         String[] requiredVars = {"monthlyIncome", "savingFraction", "ethereumDollar", "ETHquantity"};
         for (String var : requiredVars) {
@@ -47,11 +80,24 @@ public class ChartManager {
     }
 
     private void showMissingDataWarning(String missingData) {
-        historyWindow.appendLog("WARNING", "'" + missingData + "' variable not found. Please load data and run the model first.");
+        logSink.log(LogLevel.WARNING, "'{}' variable not found. Please load data and run the model first.", missingData);
         JOptionPane.showMessageDialog(null, "'" + missingData + "' variable not found. Please load data and run the model first.", "Error", JOptionPane.ERROR_MESSAGE);
     }
 
+    private JFreeChart buildChart(Controller.ModelVariables modelVar, String chartType) {
+        try (Metrics.Sample sample = CHART_BUILD.start()) {
+            JFreeChart chart = createChart(modelVar, chartType);
+            if (chart == null) {
+                sample.fail();
+            }
+            return chart;
+        }
+    }
+
     private JFreeChart createChart(Controller.ModelVariables modelVar, String chartType) {
+        if (modelVar.periodCount > CATEGORY_LIMIT) {
+            return createXYChart(modelVar, chartType);
+        }
         DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
         double[] totalSavings = getDoubleArray(modelVar, "totalSavings");
@@ -59,6 +105,10 @@ public class ChartManager {
         double[] savingFraction = getDoubleArray(modelVar, "savingFraction");
         double[] ethereumDollar = getDoubleArray(modelVar, "ethereumDollar");
         double[] ETHquantity = getDoubleArray(modelVar, "ETHquantity");
+        double[] lowerBand = getDoubleArray(modelVar, "totalSavings_P5");
+        double[] medianBand = getDoubleArray(modelVar, "totalSavings_P50");
+        double[] upperBand = getDoubleArray(modelVar, "totalSavings_P95");
+        boolean showBands = chartType.equals("LINE") && lowerBand.length > 0 && medianBand.length > 0 && upperBand.length > 0;
 
         double cumulativeIncome = 0;
         double cumulativeEthProfit = 0;
@@ -68,6 +118,11 @@ public class ChartManager {
 
             if (chartType.equals("LINE")) {
                 dataset.addValue(totalSavings[i], "Total Savings ($)", formattedPeriod);
+                if (showBands) {
+                    dataset.addValue(lowerBand[i], "P5 ($)", formattedPeriod);
+                    dataset.addValue(medianBand[i], "P50 ($)", formattedPeriod);
+                    dataset.addValue(upperBand[i], "P95 ($)", formattedPeriod);
+                }
             } else if (chartType.equals("AREA")) {
                 dataset.addValue(totalSavings[i], "Total Savings ($)", formattedPeriod);
                 double income = monthlyIncome[i] * savingFraction[i];
@@ -91,7 +146,7 @@ public class ChartManager {
                     true,
                     false
             );
-            customizeLineChart(chart);
+            customizeLineChart(chart, modelVar.periodCount <= ITEM_LABEL_LIMIT);
         } else {
             chart = ChartFactory.createAreaChart(
                     "Total Savings Over Time",
@@ -106,7 +161,7 @@ public class ChartManager {
             customizeAreaChart(chart);
         }
 
-        historyWindow.appendLog("INFO", "Model has been created.");
+        logSink.log(LogLevel.INFO, "Model has been created.");
         return chart;
     }
 
@@ -115,7 +170,8 @@ public class ChartManager {
         if (index == -1) {
             return new double[0];
         }
-        return (double[]) modelVar.values.get(index);
+        Series series = modelVar.values.get(index);
+        return series == null ? null : series.dense();
     }
 
 
@@ -127,7 +183,113 @@ public class ChartManager {
         return original;
     }
 
-    private void customizeLineChart(JFreeChart chart) {
+    private JFreeChart createXYChart(Controller.ModelVariables modelVar, String chartType) {
+        int periodCount = modelVar.periodCount;
+        DownsampledXYDataset dataset = new DownsampledXYDataset(periodCount, TARGET_POINTS);
+        double[] totalSavings = getDoubleArray(modelVar, "totalSavings");
+        dataset.addSeries("Total Savings ($)", totalSavings);
+
+        JFreeChart chart;
+        if (chartType.equals("LINE")) {
+            double[] lowerBand = getDoubleArray(modelVar, "totalSavings_P5");
+            double[] medianBand = getDoubleArray(modelVar, "totalSavings_P50");
+            double[] upperBand = getDoubleArray(modelVar, "totalSavings_P95");
+            if (lowerBand.length >= periodCount && medianBand.length >= periodCount && upperBand.length >= periodCount) {
+                dataset.addSeries("P5 ($)", lowerBand);
+                dataset.addSeries("P50 ($)", medianBand);
+                dataset.addSeries("P95 ($)", upperBand);
+            }
+            chart = ChartFactory.createXYLineChart("Total Savings Over Time", "Period", "Amount ($)", dataset,
+                    PlotOrientation.VERTICAL, true, true, false);
+        } else {
+            double[] monthlyIncome = getDoubleArray(modelVar, "monthlyIncome");
+            double[] savingFraction = getDoubleArray(modelVar, "savingFraction");
+            double[] ethereumDollar = getDoubleArray(modelVar, "ethereumDollar");
+            double[] ETHquantity = getDoubleArray(modelVar, "ETHquantity");
+            double[] cumulativeIncome = new double[periodCount];
+            double[] cumulativeEthProfit = new double[periodCount];
+            for (int i = 0; i < periodCount; i++) {
+                double previousIncome = i == 0 ? 0 : cumulativeIncome[i - 1];
+                double previousEthProfit = i == 0 ? 0 : cumulativeEthProfit[i - 1];
+                cumulativeIncome[i] = previousIncome + monthlyIncome[i] * savingFraction[i];
+                cumulativeEthProfit[i] = previousEthProfit + (i == 0 ? 0 : (ethereumDollar[i] - ethereumDollar[i - 1]) * ETHquantity[i]);
+            }
+            dataset.addSeries("Income($)", cumulativeIncome);
+            dataset.addSeries("ETH($)", cumulativeEthProfit);
+            chart = ChartFactory.createXYAreaChart("Total Savings Over Time", "Period", "Amount ($)", dataset,
+                    PlotOrientation.VERTICAL, true, true, false);
+        }
+        customizeXYChart(chart, dataset, modelVar.periodLabels, chartType);
+
+        logSink.log(LogLevel.INFO, "Model has been created with {} periods downsampled to at most {} points per series.",
+                periodCount, TARGET_POINTS);
+        return chart;
+    }
+
+    private void customizeXYChart(JFreeChart chart, DownsampledXYDataset dataset, List<String> periodLabels, String chartType) {
+        XYPlot plot = chart.getXYPlot();
+        plot.setBackgroundPaint(Color.WHITE);
+        plot.setRangeGridlinePaint(Color.GRAY);
+        plot.setDomainPannable(true);
+
+        NumberAxis domainAxis = (NumberAxis) plot.getDomainAxis();
+        domainAxis.setStandardTickUnits(NumberAxis.createIntegerTickUnits());
+        domainAxis.setNumberFormatOverride(new PeriodLabelFormat(periodLabels));
+        domainAxis.setAutoRangeIncludesZero(false);
+        domainAxis.setTickLabelFont(new Font("Arial", Font.PLAIN, 14));
+        plot.getRangeAxis().setTickLabelFont(new Font("Arial", Font.PLAIN, 14));
+
+        if (chartType.equals("LINE")) {
+            XYLineAndShapeRenderer renderer = new XYLineAndShapeRenderer(true, false);
+            renderer.setDrawSeriesLineAsPath(true);
+            renderer.setDataBoundsIncludesVisibleSeriesOnly(false);
+            renderer.setSeriesPaint(0, new Color(75, 0, 130));
+            renderer.setSeriesStroke(0, new BasicStroke(3f));
+            renderer.setSeriesShape(0, new RoundRectangle2D.Double(-4, -4, 8, 8, 4, 4));
+            renderer.setDefaultItemLabelGenerator(new StandardXYItemLabelGenerator());
+            renderer.setDefaultItemLabelFont(new Font("Arial", Font.PLAIN, 12));
+            renderer.setDefaultItemLabelPaint(Color.BLACK);
+
+            Stroke bandStroke = new BasicStroke(2.0f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND, 1.0f, new float[]{6.0f, 6.0f}, 0.0f);
+            Color[] bandColors = {new Color(255, 99, 71), new Color(100, 149, 237), new Color(60, 179, 113)};
+            for (int series = 1; series < dataset.getSeriesCount(); series++) {
+                renderer.setSeriesPaint(series, bandColors[(series - 1) % bandColors.length]);
+                renderer.setSeriesStroke(series, bandStroke);
+            }
+            plot.setRenderer(renderer);
+            updateItemLabels(renderer, dataset);
+
+            ValueAxis axis = plot.getDomainAxis();
+            axis.addChangeListener(e -> {
+                dataset.setVisibleRange(axis.getLowerBound(), axis.getUpperBound());
+                updateItemLabels(renderer, dataset);
+            });
+        } else {
+            XYAreaRenderer renderer = new XYAreaRenderer();
+            renderer.setDataBoundsIncludesVisibleSeriesOnly(false);
+            renderer.setSeriesPaint(0, new Color(100, 149, 237, 128));
+            renderer.setSeriesPaint(1, new Color(60, 179, 113, 128));
+            renderer.setSeriesPaint(2, new Color(255, 99, 71, 128));
+            for (int series = 0; series < 3; series++) {
+                renderer.setSeriesStroke(series, new BasicStroke(2.0f));
+            }
+            plot.setRenderer(renderer);
+
+            ValueAxis axis = plot.getDomainAxis();
+            axis.addChangeListener(e -> dataset.setVisibleRange(axis.getLowerBound(), axis.getUpperBound()));
+        }
+        chart.getLegend().setItemFont(new Font("Arial", Font.PLAIN, 14));
+    }
+
+    private void updateItemLabels(XYLineAndShapeRenderer renderer, DownsampledXYDataset dataset) {
+        boolean sparse = dataset.getVisiblePointCount() <= ITEM_LABEL_LIMIT;
+        if (renderer.isSeriesItemLabelsVisible(0) != sparse) {
+            renderer.setSeriesItemLabelsVisible(0, sparse);
+            renderer.setSeriesShapesVisible(0, sparse);
+        }
+    }
+
+    private void customizeLineChart(JFreeChart chart, boolean showItemLabels) {
         CategoryPlot plot = chart.getCategoryPlot();
         plot.setBackgroundPaint(Color.WHITE);
         plot.setRangeGridlinePaint(Color.GRAY);
@@ -144,11 +306,20 @@ public class ChartManager {
         renderer.setSeriesOutlineStroke(0, new BasicStroke(5.0f));
         renderer.setSeriesShapesVisible(0, true);
         renderer.setSeriesShape(0, new RoundRectangle2D.Double(-4, -4, 8, 8, 4, 4));
-        renderer.setDefaultItemLabelsVisible(true);
+        renderer.setDefaultItemLabelsVisible(showItemLabels);
         renderer.setDefaultItemLabelGenerator(new StandardCategoryItemLabelGenerator());
         renderer.setDefaultItemLabelFont(new Font("Arial", Font.PLAIN, 12));
         renderer.setDefaultItemLabelPaint(Color.BLACK);
 
+        Stroke bandStroke = new BasicStroke(2.0f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND, 1.0f, new float[]{6.0f, 6.0f}, 0.0f);
+        Color[] bandColors = {new Color(255, 99, 71), new Color(100, 149, 237), new Color(60, 179, 113)};
+        for (int series = 1; series < chart.getCategoryPlot().getDataset().getRowCount(); series++) {
+            renderer.setSeriesPaint(series, bandColors[(series - 1) % bandColors.length]);
+            renderer.setSeriesStroke(series, bandStroke);
+            renderer.setSeriesShapesVisible(series, false);
+            renderer.setSeriesItemLabelsVisible(series, false);
+        }
+
         plot.setRenderer(renderer);
         chart.getLegend().setItemFont(new Font("Arial", Font.PLAIN, 14));
     }
@@ -183,9 +354,43 @@ public class ChartManager {
         chartFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
         ChartPanel chartPanel = new ChartPanel(chart);
+        chartPanel.setMouseWheelEnabled(true);
         chartFrame.add(chartPanel);
+        openCharts.put(chartPanel, chartType);
+        chartFrame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                openCharts.remove(chartPanel);
+            }
+        });
         chartFrame.setVisible(true);
 
-        historyWindow.appendLog("INFO", chartType.equals("LINE") ? "Line chart generated and displayed." : "Area chart generated and displayed.");
+        logSink.log(LogLevel.INFO, chartType.equals("LINE") ? "Line chart generated and displayed." : "Area chart generated and displayed.");
+    }
+
+    private class PeriodLabelFormat extends NumberFormat {
+        private final List<String> periodLabels;
+
+        PeriodLabelFormat(List<String> periodLabels) {
+            this.periodLabels = periodLabels;
+        }
+
+        @Override
+        public StringBuffer format(double number, StringBuffer toAppendTo, FieldPosition pos) {
+            return format(Math.round(number), toAppendTo, pos);
+        }
+
+        @Override
+        public StringBuffer format(long number, StringBuffer toAppendTo, FieldPosition pos) {
+            if (number >= 0 && number < periodLabels.size()) {
+                return toAppendTo.append(formatPeriodLabel(periodLabels.get((int) number)));
+            }
+            return toAppendTo.append(number);
+        }
+
+        @Override
+        public Number parse(String source, ParsePosition parsePosition) {
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
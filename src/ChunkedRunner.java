@@ -0,0 +1,121 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+
+public class ChunkedRunner {
+    public static final int DEFAULT_CHUNK_PERIODS = Integer.getInteger("savings.chunk.periods", 1 << 20);
+
+    private final Class<?> modelClass;
+    private final ModelBindings bindings;
+    private final int chunkPeriods;
+    private final LogSink logSink;
+
+    public ChunkedRunner(String modelName, int chunkPeriods, LogSink logSink) throws ClassNotFoundException {
+        if (chunkPeriods < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least one period");
+        }
+        this.modelClass = Class.forName(modelName);
+        this.bindings = ModelBindings.of(modelClass);
+        this.chunkPeriods = chunkPeriods;
+        this.logSink = logSink;
+        if (!bindings.supportsRunChunk()) {
+            throw new IllegalArgumentException("Model " + modelName + " does not support chunked execution (no runChunk(double[]))");
+        }
+    }
+
+    public boolean run(Path input, Path output, DoubleConsumer progress) throws IOException {
+        long start = System.nanoTime();
+        try (SnapshotFile.Reader reader = new SnapshotFile.Reader(input)) {
+            int periodCount = reader.getPeriodCount();
+            int chunk = Math.min(chunkPeriods, Math.max(1, periodCount));
+            Object model = modelClass.getDeclaredConstructor(LogSink.class).newInstance(LogSink.NONE);
+
+            ModelBindings.Accessor periodAccessor = null;
+            List<SnapshotFile.ColumnReader> inputColumns = new ArrayList<>();
+            List<double[]> inputBuffers = new ArrayList<>();
+            List<ModelBindings.Accessor> outputs = new ArrayList<>();
+            List<String> outputNames = new ArrayList<>();
+            for (ModelBindings.Accessor accessor : bindings.all()) {
+                if (accessor.isPeriodCount()) {
+                    periodAccessor = accessor;
+                } else if (accessor.isOutput()) {
+                    outputs.add(accessor);
+                    outputNames.add(accessor.getName());
+                } else if (accessor.isArray()) {
+                    SnapshotFile.ColumnReader column = reader.openColumn(accessor.getName());
+                    if (column == null) {
+                        logSink.log(LogLevel.ERROR, "Input '{}' is missing from snapshot: {}", accessor.getName(), input);
+                        return false;
+                    }
+                    double[] buffer = new double[chunk];
+                    accessor.setArray(model, buffer);
+                    inputColumns.add(column);
+                    inputBuffers.add(buffer);
+                }
+            }
+
+            logSink.log(LogLevel.INFO, "Chunked run of {} periods in chunks of {} started from: {}", periodCount, chunk, input);
+            try (SnapshotFile.MappedWriter writer = SnapshotFile.createMapped(output, outputNames, reader)) {
+                double[] carry = null;
+                for (int from = 0; from < periodCount; from += chunk) {
+                    int length = Math.min(chunk, periodCount - from);
+                    for (int c = 0; c < inputColumns.size(); c++) {
+                        inputColumns.get(c).read(inputBuffers.get(c), 0, length);
+                    }
+                    periodAccessor.setInt(model, length);
+                    carry = bindings.runChunk(model, carry);
+                    for (int o = 0; o < outputs.size(); o++) {
+                        writer.write(o, from, outputs.get(o).getArray(model), length);
+                    }
+                    if (progress != null) {
+                        progress.accept((double) (from + length) / periodCount);
+                    }
+                    if (Thread.currentThread().isInterrupted()) {
+                        logSink.log(LogLevel.WARNING, "Chunked run was cancelled after {} periods.", from + length);
+                        return false;
+                    }
+                }
+            }
+            logSink.log(LogLevel.INFO, "Chunked run finished in {} ms, results written to: {}", (System.nanoTime() - start) / 1_000_000, output);
+            return true;
+        } catch (IOException e) {
+            throw e;
+        } catch (Throwable e) {
+            logSink.log(LogLevel.ERROR, "Chunked run failed - {}", e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: ChunkedRunner <modelName> <input" + SnapshotFile.EXTENSION + "> <output" + SnapshotFile.EXTENSION
+                    + "> [--chunk <periods>] [--verbose]");
+            System.exit(2);
+        }
+
+        int chunkPeriods = DEFAULT_CHUNK_PERIODS;
+        boolean verbose = false;
+        for (int i = 3; i < args.length; i++) {
+            switch (args[i]) {
+                case "--chunk":
+                    chunkPeriods = Integer.parseInt(args[++i]);
+                    break;
+                case "--verbose":
+                    verbose = true;
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        ConsoleLogSink logSink = new ConsoleLogSink(System.err, verbose);
+        ChunkedRunner runner = new ChunkedRunner(args[0], chunkPeriods, logSink);
+        boolean finished = runner.run(Paths.get(args[1]), Paths.get(args[2]), null);
+        System.exit(finished && logSink.getErrorCount() == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,37 @@
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConsoleLogSink implements LogSink {
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final PrintStream out;
+    private final boolean verbose;
+    private final AtomicInteger errorCount = new AtomicInteger();
+
+    public ConsoleLogSink(PrintStream out, boolean verbose) {
+        this.out = out;
+        this.verbose = verbose;
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return verbose || level != LogLevel.INFO;
+    }
+
+    @Override
+    public void log(LogLevel level, String message) {
+        if (level == LogLevel.ERROR) {
+            errorCount.incrementAndGet();
+        }
+        if (!isEnabled(level)) {
+            return;
+        }
+        out.printf("[%s] [%s] %s%n", LocalDateTime.now().format(TIMESTAMP_FORMAT), level, message);
+    }
+
+    public int getErrorCount() {
+        return errorCount.get();
+    }
+}
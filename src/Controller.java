@@ -1,165 +1,674 @@
 import java.io.FileReader;
+import java.nio.file.Paths;
 import java.io.IOException;
-import java.lang.reflect.Field;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.DoubleConsumer;
 import java.util.*;
 import groovy.lang.Binding;
-import groovy.lang.GroovyShell;
 import groovy.lang.Script;
-import javax.swing.JOptionPane;
 import java.io.BufferedReader;
 public class Controller {
-    private static final String FIELD_LL = "LL";
+    private static final int CLEAN = Integer.MAX_VALUE;
+    private static final Metrics METRICS = Metrics.getDefault();
+    private static final Metrics.Stage READ_DATA = METRICS.stage("readDataFrom");
+    private static final Metrics.Stage READ_SNAPSHOT = METRICS.stage("readSnapshotFrom");
+    private static final Metrics.Stage RUN_MODEL = METRICS.stage("runModel");
+    private static final Metrics.Stage RUN_SCRIPT = METRICS.stage("runScript");
+    private static final Metrics.Stage RUN_EXPRESSIONS = METRICS.stage("runExpressions");
+    private static final Metrics.Stage GET_MODEL_VARIABLES = METRICS.stage("getModelVariables");
+    private static final Metrics.Stage EXPORT = METRICS.stage("export");
     private Binding binding;
-    private GroovyShell groovy;
-    private Map<String, double[]> scriptVariables;
+    private volatile boolean staticScripts = Boolean.getBoolean("savings.scripts.static");
+    private volatile boolean lazyExpressions = Boolean.getBoolean("savings.expressions.lazy");
+    private volatile boolean interactive;
+    private Map<String, double[]> scriptVariables = new LinkedHashMap<>();
     private Object modelInstance;
-    private Class<?> modelClass;
+    private ModelDefinition definition;
+    private ModelBindings bindings;
     private int periodCount;
-    private final List<String> periodLabels = new ArrayList<>();
-    private final List<String> modelVariableNames = new ArrayList<>();
-    private HistoryWindow historyWindow;
-
-    public Controller(String modelName, HistoryWindow historyWindow) {
-        this.historyWindow = historyWindow;
+    private List<String> periodLabels = List.of();
+    private List<String> modelVariableNames = List.of();
+    private final Set<String> changedInputs = new LinkedHashSet<>();
+    private final Map<String, ScriptRecord> scriptRecords = new LinkedHashMap<>();
+    private final Map<String, ExpressionProgram.Definition> expressionNodes = new LinkedHashMap<>();
+    private final Set<String> pendingNodes = new LinkedHashSet<>();
+    private int dirtyFrom;
+    private LogSink logSink;
+
+    public Controller(String modelName, LogSink logSink) {
+        this.logSink = logSink;
         try {
-            modelClass = Class.forName(modelName);
-            modelInstance = modelClass.getDeclaredConstructor(HistoryWindow.class).newInstance(historyWindow);
-            binding = new Binding();
-            groovy = new GroovyShell(binding);
-            scriptVariables = new LinkedHashMap<String, double[]>();
-
-            for (Field f : modelClass.getDeclaredFields()) {
-                if (f.isAnnotationPresent(Bind.class) && !f.getName().equals(FIELD_LL)) {
-                    modelVariableNames.add(f.getName());
-                }
-            }
-
-            historyWindow.appendLog("INFO", "Controller initialized with model: " + modelName);
+            useDefinition(ModelDefinition.of(modelName));
+            logSink.log(LogLevel.INFO, "Controller initialized with model: {} ({} kernels)",
+                    modelName, ModelKernels.DEFAULT.getName());
         } catch (Exception e) {
-            historyWindow.appendLog("ERROR", "Failed to initialize Controller with model: " + modelName + " - " + e.getMessage());
+            logSink.log(LogLevel.ERROR, "Failed to initialize Controller with model: {} - {}", modelName, e.getMessage());
             e.printStackTrace();
         }
     }
 
+    public Controller(ModelDefinition definition, LogSink logSink) {
+        this.logSink = logSink;
+        try {
+            useDefinition(definition);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to instantiate model " + definition.getName(), e);
+        }
+    }
+
+    private void useDefinition(ModelDefinition definition) throws ReflectiveOperationException {
+        modelInstance = definition.newInstance(logSink);
+        this.definition = definition;
+        bindings = definition.getBindings();
+        modelVariableNames = definition.getVariableNames();
+    }
+
+    public ModelDefinition getDefinition() {
+        return definition;
+    }
+
     private void reset() {
-        periodLabels.clear();
+        periodLabels = List.of();
         periodCount = 0;
         scriptVariables.clear();
-        for (Field f : modelClass.getDeclaredFields()) {
-            if (f.isAnnotationPresent(Bind.class)) {
-                f.setAccessible(true);
-                try {
-                    if (f.getName().equals("LL")) {
-                        f.setInt(modelInstance, 0);
-                    } else if (f.getType() == double[].class) {
-                        f.set(modelInstance, new double[0]);
-                    }
-                } catch (IllegalAccessException e) {
-                    historyWindow.appendLog("ERROR", "Error resetting field '" + f.getName() + "': " + e.getMessage());
-                }
+        invalidate();
+        for (ModelBindings.Accessor accessor : bindings.all()) {
+            if (accessor.isPeriodCount()) {
+                accessor.setInt(modelInstance, 0);
+            } else if (accessor.isArray()) {
+                accessor.setArray(modelInstance, new double[0]);
             }
         }
 
-        historyWindow.appendLog("INFO", "Controller has been reset.");
+        logSink.log(LogLevel.INFO, "Controller has been reset.");
     }
 
 
     public Controller readDataFrom(String fname) {
-        historyWindow.appendLog("INFO", "Attempting to read data from file: " + fname);
-        reset();
+        return readDataFrom(fname, null);
+    }
 
-        try (Scanner sc = new Scanner(new FileReader(fname))) {
-            while (sc.hasNextLine()) {
-                String line = sc.nextLine().trim();
-                if (line.isEmpty()) {
-                    continue;
-                }
+    public Controller readDataFrom(String fname, DoubleConsumer progress) {
+        Metrics.Sample sample = READ_DATA.start();
+        logSink.log(LogLevel.INFO, "Attempting to read data from file: {}", fname);
+        reset();
 
-                if (line.startsWith("LATA")) {
-                    String[] tokens = line.split("\\s+");
-                    for (int i = 1; i < tokens.length; i++) {
-                        periodLabels.add(tokens[i]);
-                    }
+        try {
+            DataFileParser.parse(Paths.get(fname), new DataFileParser.Handler() {
+                @Override
+                public void onPeriodLabels(List<String> labels) {
+                    periodLabels = definition.sharedLabels(labels);
                     periodCount = periodLabels.size();
 
                     setFieldValue("LL", periodCount);
-                    historyWindow.appendLog("INFO", "Set LL based on LATA -> LL=" + periodCount);
-                } else {
-                    String[] tokens = line.split("\\s+");
-                    String varName = tokens[0];
-
-                    List<Double> values = new ArrayList<>();
-                    for (int i = 1; i < tokens.length; i++) {
-                        try {
-                            double d = Double.parseDouble(tokens[i]);
-                            values.add(d);
-                        } catch (NumberFormatException ex) {
-                            historyWindow.appendLog("WARNING",
-                                    "Ignored non-numeric value: " + tokens[i] + " for variable " + varName);
-                        }
-                    }
+                    logSink.log(LogLevel.INFO, "Set LL based on LATA -> LL={}", periodCount);
+                }
 
-                    Field f = getBindFieldByName(varName);
-                    if (f != null && f.getType() == double[].class) {
-                        double[] arr = new double[periodCount];
-                        for (int i = 0; i < periodCount; i++) {
-                            if (i < values.size()) {
-                                arr[i] = values.get(i);
-                            } else {
-                                arr[i] = values.isEmpty() ? 0.0 : values.get(values.size() - 1);
-                            }
+                @Override
+                public void onVariable(String varName, double[] values, int count) {
+                    ModelBindings.Accessor accessor = bindings.get(varName);
+                    if (accessor != null && accessor.isArray()) {
+                        Series series = Series.compress(values, count, periodCount);
+                        setFieldValue(varName, series);
+                        logSink.log(LogLevel.INFO, "Set {} = {}", varName, series);
+                        if (logSink.isEnabled(LogLevel.INFO)) {
+                            logSink.log(LogLevel.INFO, "Stored {} as {}, compression ratio {}", varName, series.getEncoding(),
+                                    String.format(Locale.ROOT, "%.1f", series.getCompressionRatio()));
                         }
-                        setFieldValue(varName, arr);
-                        historyWindow.appendLog("INFO",
-                                "Set " + varName + " = " + Arrays.toString(arr));
                     } else {
-                        historyWindow.appendLog("WARNING", "Ignored variable or unsupported type: " + varName);
+                        logSink.log(LogLevel.WARNING, "Ignored variable or unsupported type: {}", varName);
                     }
                 }
-            }
-            historyWindow.appendLog("INFO", "Data loaded successfully from: " + fname);
+
+                @Override
+                public void onInvalidValue(String varName, String token) {
+                    logSink.log(LogLevel.WARNING, "Ignored non-numeric value: {} for variable {}", token, varName);
+                }
+            }, progress);
+            logSink.log(LogLevel.INFO, "Data loaded successfully from: {}", fname);
+        } catch (ClosedByInterruptException e) {
+            logSink.log(LogLevel.WARNING, "Reading data from {} was cancelled.", fname);
+            reset();
+            Thread.currentThread().interrupt();
         } catch (IOException e) {
-            historyWindow.appendLog("ERROR",
-                    "Error reading file: " + fname + " - " + e.getMessage());
+            sample.fail();
+            logSink.log(LogLevel.ERROR, "Error reading file: {} - {}", fname, e.getMessage());
+        } finally {
+            sample.close();
+        }
+        return this;
+    }
+
+
+    public Controller readSnapshotFrom(String fname) {
+        Metrics.Sample sample = READ_SNAPSHOT.start();
+        logSink.log(LogLevel.INFO, "Attempting to read snapshot from file: {}", fname);
+        reset();
+
+        try {
+            long start = System.nanoTime();
+            ModelVariables snapshot = SnapshotFile.read(Paths.get(fname));
+            periodLabels = snapshot.periodLabels;
+            periodCount = snapshot.periodCount;
+            setFieldValue("LL", periodCount);
+
+            for (int i = 0; i < snapshot.names.size(); i++) {
+                String varName = snapshot.names.get(i);
+                Series values = snapshot.values.get(i);
+                ModelBindings.Accessor accessor = bindings.get(varName);
+                if (accessor != null && accessor.isArray()) {
+                    setFieldValue(varName, values);
+                } else if (accessor == null) {
+                    scriptVariables.put(varName, values.dense());
+                }
+            }
+
+            boolean outputsLoaded = true;
+            for (ModelBindings.Accessor accessor : bindings.all()) {
+                if (accessor.isOutput() && !snapshot.names.contains(accessor.getName())) {
+                    outputsLoaded = false;
+                }
+            }
+            if (outputsLoaded) {
+                dirtyFrom = CLEAN;
+            }
+            logSink.log(LogLevel.INFO, "Snapshot with {} columns and {} periods loaded in {} ms.",
+                    snapshot.names.size(), periodCount, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            sample.fail();
+            logSink.log(LogLevel.ERROR, "Error reading snapshot: {} - {}", fname, e.getMessage());
+        } finally {
+            sample.close();
         }
         return this;
     }
 
+    public Controller writeSnapshot(String fname, SnapshotFile.Encoding encoding) {
+        Metrics.Sample sample = EXPORT.start();
+        try {
+            long start = System.nanoTime();
+            SnapshotFile.write(Paths.get(fname), getModelVariables(), encoding);
+            logSink.log(LogLevel.INFO, "Snapshot ({}) written in {} ms to: {}", encoding, (System.nanoTime() - start) / 1_000_000, fname);
+        } catch (IOException e) {
+            sample.fail();
+            logSink.log(LogLevel.ERROR, "Error writing snapshot: {} - {}", fname, e.getMessage());
+        } finally {
+            sample.close();
+        }
+        return this;
+    }
 
     public Controller runModel() {
-        historyWindow.appendLog("INFO", "Initiating model run.");
+        if (dirtyFrom == CLEAN) {
+            METRICS.counter("runModel.upToDate").increment();
+            logSink.log(LogLevel.INFO, "Model outputs are up to date, nothing to recompute.");
+            return this;
+        }
+        Metrics.Sample sample = RUN_MODEL.start();
+        logSink.log(LogLevel.INFO, "Initiating model run.");
         try {
-            modelClass.getMethod("run").invoke(modelInstance);
-            historyWindow.appendLog("INFO", "Model has been run successfully.");
-        } catch (Exception e) {
-            historyWindow.appendLog("ERROR", "Failed to run model - " + e.getMessage());
+            long start = System.nanoTime();
+            int from = dirtyFrom;
+            if (from > 0 && bindings.supportsRunFrom()) {
+                detachOutputs();
+                bindings.runFrom(modelInstance, from);
+            } else {
+                from = 0;
+                bindings.run(modelInstance);
+            }
+            dirtyFrom = CLEAN;
+            sample.close();
+            METRICS.counter("runModel.periodsRecomputed").add(periodCount - from);
+            logSink.log(LogLevel.INFO, "Model has been run successfully ({} of {} periods recomputed in {} ms).",
+                    periodCount - from, periodCount, (System.nanoTime() - start) / 1_000_000);
+
+            Set<String> changed = new LinkedHashSet<>(changedInputs);
+            for (ModelBindings.Accessor accessor : bindings.all()) {
+                if (accessor.isOutput()) {
+                    changed.add(accessor.getName());
+                }
+            }
+            changedInputs.clear();
+            invalidateDependents(changed);
+            rerunDirtyScripts(changed);
+        } catch (Throwable e) {
+            sample.fail();
+            logSink.log(LogLevel.ERROR, "Failed to run model - {}", e.getMessage());
             e.printStackTrace();
+        } finally {
+            sample.close();
         }
         return this;
     }
 
-    public Controller runScript(String scriptCode) {
-        historyWindow.appendLog("INFO", "Executing script.");
+    public Controller updateVariable(String varName, int fromIndex, double[] values) {
+        ModelBindings.Accessor accessor = bindings.get(varName);
+        if (accessor == null || !accessor.isArray() || accessor.isOutput()) {
+            logSink.log(LogLevel.WARNING, "'{}' is not an input variable of the model.", varName);
+            return this;
+        }
+        if (fromIndex < 0 || fromIndex >= periodCount) {
+            logSink.log(LogLevel.ERROR, "Index {} is outside of the {} loaded periods.", fromIndex, periodCount);
+            return this;
+        }
+
+        Series current = accessor.getSeries(modelInstance);
+        current = current == null ? Series.constant(0.0, periodCount) : current.withLength(periodCount);
+        int count = Math.min(values.length, periodCount - fromIndex);
+        accessor.setSeries(modelInstance, current.with(fromIndex, values, count));
+        markDirty(varName, fromIndex);
+        logSink.log(LogLevel.INFO, "Updated {} value(s) of '{}' from index {}.", count, varName, fromIndex);
+        return this;
+    }
+
+    private void detachOutputs() {
+        for (ModelBindings.Accessor accessor : bindings.all()) {
+            double[] values = accessor.isOutput() && accessor.isArray() ? accessor.getArray(modelInstance) : null;
+            if (values != null) {
+                accessor.setArray(modelInstance, values.clone());
+            }
+        }
+    }
+
+    public boolean isModelDirty() {
+        return dirtyFrom != CLEAN;
+    }
+
+    private void markDirty(String varName, int fromIndex) {
+        dirtyFrom = Math.min(dirtyFrom, fromIndex);
+        changedInputs.add(varName);
+    }
+
+    private void invalidate() {
+        dirtyFrom = 0;
+        changedInputs.clear();
+        scriptRecords.clear();
+        expressionNodes.clear();
+        pendingNodes.clear();
+    }
+
+    private void rerunDirtyScripts(Set<String> changed) {
+        if (scriptRecords.isEmpty()) {
+            return;
+        }
+        List<ScriptRecord> dirty = new ArrayList<>();
+        for (ScriptRecord record : scriptRecords.values()) {
+            if (!Collections.disjoint(record.reads, changed)) {
+                dirty.add(record);
+                changed.addAll(record.writes);
+            }
+        }
+        METRICS.counter("runScript.reevaluated").add(dirty.size());
+        logSink.log(LogLevel.INFO, "Re-evaluating {} of {} recorded script(s) affected by changes to {}.",
+                dirty.size(), scriptRecords.size(), changed);
+        for (ScriptRecord record : dirty) {
+            if (record.expressions) {
+                runExpressions(record.code);
+            } else {
+                runScript(record.code);
+            }
+        }
+    }
+
+    public Controller runMonteCarlo(MonteCarloEngine.Config config) {
+        logSink.log(LogLevel.INFO, "Initiating Monte Carlo run with {} paths.", config.paths);
+        if (definition.getModelClass() != ModelSavings.class) {
+            logSink.log(LogLevel.ERROR, "Monte Carlo mode is only available for ModelSavings.");
+            return this;
+        }
         try {
-            setBindingVariables();
+            MonteCarloEngine engine = new MonteCarloEngine(periodCount,
+                    getArrayValue("monthlyIncome"), getArrayValue("savingFraction"),
+                    getArrayValue("bankDeposit"), getArrayValue("bankDepositRate"),
+                    getArrayValue("initialSavings"), getArrayValue("ethereumDollar"),
+                    getArrayValue("ETHquantity"), logSink);
+            MonteCarloEngine.Result result = engine.run(config);
+            List<String> bandNames = result.getBandNames("totalSavings");
+            for (int i = 0; i < bandNames.size(); i++) {
+                scriptVariables.put(bandNames.get(i), result.getBand(i));
+            }
+            logSink.log(LogLevel.INFO, "Monte Carlo bands stored: {}", bandNames);
+        } catch (RuntimeException e) {
+            logSink.log(LogLevel.ERROR, "Failed to run Monte Carlo - {}", e.getMessage());
+            logSink.showError("Error", "Failed to run Monte Carlo: " + e.getMessage());
+        }
+        return this;
+    }
 
-            Script script = groovy.parse(scriptCode);
+    private double[] getArrayValue(String varName) {
+        ModelBindings.Accessor accessor = bindings.get(varName);
+        return accessor == null ? null : accessor.getArray(modelInstance);
+    }
+
+    public Controller runScript(String scriptCode) {
+        Metrics.Sample sample = RUN_SCRIPT.start();
+        logSink.log(LogLevel.INFO, "Executing script.");
+        try {
+            if (binding == null) {
+                binding = new Binding();
+            }
+            materialize(null);
+            Set<String> knownNames = new LinkedHashSet<>(modelVariableNames);
+            knownNames.addAll(scriptVariables.keySet());
+            Set<String> referenced = ScriptDependencies.referencedNames(scriptCode, knownNames);
+            Map<String, double[]> boundInputs = setBindingVariables(referenced);
+            Map<String, double[]> before = new HashMap<>(scriptVariables);
+
+            ScriptCache scriptCache = getScriptCache();
+            Script script = staticScripts
+                    ? scriptCache.createStaticScript(scriptCode, getBindingVariableTypes(), binding, logSink)
+                    : scriptCache.createScript(scriptCode, binding, logSink);
             script.run();
 
+            storeChangedInputs(boundInputs);
             extractScriptVariables();
-            historyWindow.appendLog("INFO", "Script has been executed successfully.");
+            recordScript(scriptCode, new LinkedHashSet<>(referenced), knownNames, before);
+            logSink.log(LogLevel.INFO, "Script has been executed successfully.");
         } catch (Exception e) {
-            historyWindow.appendLog("ERROR", "Error executing script - " + e.getMessage());
-            JOptionPane.showMessageDialog(null, "Error executing script: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            sample.fail();
+            if (e instanceof InterruptedException) {
+                logSink.log(LogLevel.WARNING, "Script execution was cancelled.");
+                Thread.currentThread().interrupt();
+                return this;
+            }
+            if (e instanceof TimeoutException) {
+                logSink.log(LogLevel.ERROR, "Script timed out - {}", e.getMessage());
+                logSink.showError("Error", "Script exceeded the time limit of " + getScriptCache().getTimeoutSeconds() + " s.");
+                return this;
+            }
+            logSink.log(LogLevel.ERROR, "Error executing script - {}", e.getMessage());
+            logSink.showError("Error", "Error executing script: " + e.getMessage());
+        } finally {
+            sample.close();
         }
         return this;
     }
 
-    private void setBindingVariables() throws IllegalAccessException {
-        for (Field f : modelClass.getDeclaredFields()) {
-            if (f.isAnnotationPresent(Bind.class)) {
-                f.setAccessible(true);
-                binding.setVariable(f.getName(), f.get(modelInstance));
+    private void recordScript(String scriptCode, Set<String> reads, Set<String> knownNames, Map<String, double[]> before) {
+        Set<String> writes = new LinkedHashSet<>();
+        for (Map.Entry<String, double[]> entry : scriptVariables.entrySet()) {
+            if (before.get(entry.getKey()) != entry.getValue()) {
+                writes.add(entry.getKey());
+            }
+        }
+        for (String name : ScriptDependencies.mutatedArrays(scriptCode, knownNames)) {
+            writes.add(name);
+            if (modelVariableNames.contains(name)) {
+                markDirty(name, 0);
+            }
+        }
+        reads.removeAll(writes);
+
+        scriptRecords.remove(scriptCode);
+        scriptRecords.put(scriptCode, new ScriptRecord(scriptCode, reads, writes, false));
+        expressionInputsChanged(writes);
+    }
+
+    public Controller runExpressions(String source) {
+        Metrics.Sample sample = RUN_EXPRESSIONS.start();
+        logSink.log(LogLevel.INFO, lazyExpressions ? "Recording lazy expressions." : "Evaluating expressions.");
+        try {
+            if (lazyExpressions) {
+                defineExpressions(source);
+            } else {
+                ExpressionProgram program = evaluateExpressions(source);
+                Set<String> reads = new LinkedHashSet<>(program.getInputs());
+                Set<String> writes = new LinkedHashSet<>(program.getTargets());
+                reads.removeAll(writes);
+                scriptRecords.remove(source);
+                scriptRecords.put(source, new ScriptRecord(source, reads, writes, true));
+                expressionInputsChanged(writes);
+                logSink.log(LogLevel.INFO, "Expressions evaluated successfully: {}", program.getTargets());
+            }
+        } catch (IOException | RuntimeException e) {
+            sample.fail();
+            logSink.log(LogLevel.ERROR, "Error evaluating expressions - {}", e.getMessage());
+            logSink.showError("Error", "Error evaluating expressions: " + e.getMessage());
+        } finally {
+            sample.close();
+        }
+        return this;
+    }
+
+    private ExpressionProgram evaluateExpressions(String source) throws IOException {
+        ExpressionProgram program = ExpressionProgram.compile(source, logSink);
+        checkExpressionTargets(program.getTargets());
+        List<String> inputs = program.getInputs();
+        materialize(inputs);
+        Series[] inputSeries = new Series[inputs.size()];
+        for (int j = 0; j < inputSeries.length; j++) {
+            inputSeries[j] = getExpressionInput(inputs.get(j));
+        }
+        double[][] results = program.run(inputSeries, periodCount);
+
+        List<String> targets = program.getTargets();
+        for (int k = 0; k < results.length; k++) {
+            scriptVariables.put(targets.get(k), results[k]);
+        }
+        return program;
+    }
+
+    private void defineExpressions(String source) {
+        List<ExpressionProgram.Definition> definitions = ExpressionProgram.parse(source);
+        List<String> names = new ArrayList<>();
+        for (ExpressionProgram.Definition definition : definitions) {
+            names.add(definition.getName());
+        }
+        checkExpressionTargets(names);
+        Map<String, ExpressionProgram.Definition> nodes = new LinkedHashMap<>(expressionNodes);
+        for (ExpressionProgram.Definition definition : definitions) {
+            nodes.remove(definition.getName());
+            nodes.put(definition.getName(), definition);
+        }
+        for (ExpressionProgram.Definition definition : definitions) {
+            for (String reference : definition.getReferences()) {
+                if (!nodes.containsKey(reference) && getVariableSeries(reference) == null) {
+                    throw new IllegalArgumentException("Unknown variable '" + reference + "' in " + definition);
+                }
+            }
+            if (dependsOn(nodes, definition.getName(), definition.getName(), new HashSet<>())) {
+                throw new IllegalArgumentException("'" + definition.getName() + "' depends on itself");
+            }
+        }
+
+        expressionNodes.clear();
+        expressionNodes.putAll(nodes);
+        for (ExpressionProgram.Definition definition : definitions) {
+            if (!definition.isTemporary()) {
+                pendingNodes.add(definition.getName());
+            }
+        }
+        invalidateDependents(names);
+        logSink.log(LogLevel.INFO, "Recorded {} expression(s), {} variable(s) pending evaluation: {}",
+                definitions.size(), pendingNodes.size(), pendingNodes);
+    }
+
+    private static boolean dependsOn(Map<String, ExpressionProgram.Definition> nodes, String name, String target, Set<String> visited) {
+        ExpressionProgram.Definition node = nodes.get(name);
+        if (node == null || !visited.add(name)) {
+            return false;
+        }
+        for (String reference : node.getReferences()) {
+            if (reference.equals(target) || dependsOn(nodes, reference, target, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkExpressionTargets(Collection<String> targets) {
+        for (String target : targets) {
+            if (modelVariableNames.contains(target)) {
+                throw new IllegalArgumentException("'" + target + "' is a model variable and cannot be assigned");
+            }
+        }
+    }
+
+    private void expressionInputsChanged(Collection<String> names) {
+        if (expressionNodes.isEmpty()) {
+            return;
+        }
+        for (String name : names) {
+            expressionNodes.remove(name);
+            pendingNodes.remove(name);
+        }
+        invalidateDependents(names);
+    }
+
+    private void invalidateDependents(Collection<String> changed) {
+        Deque<String> queue = new ArrayDeque<>(changed);
+        Set<String> seen = new HashSet<>(changed);
+        while (!queue.isEmpty()) {
+            String name = queue.poll();
+            for (ExpressionProgram.Definition node : expressionNodes.values()) {
+                if (node.getReferences().contains(name) && seen.add(node.getName())) {
+                    queue.add(node.getName());
+                    if (!node.isTemporary()) {
+                        pendingNodes.add(node.getName());
+                    }
+                }
+            }
+        }
+    }
+
+    private void materialize(Collection<String> requested) {
+        if (pendingNodes.isEmpty()) {
+            return;
+        }
+        List<ExpressionProgram.Definition> order = new ArrayList<>();
+        Set<String> visited = new HashSet<>();
+        for (String name : requested == null ? pendingNodes : requested) {
+            collectPending(name, visited, order);
+        }
+        StringBuilder source = new StringBuilder();
+        int outputs = 0;
+        for (ExpressionProgram.Definition definition : order) {
+            source.append(definition).append('\n');
+            outputs += definition.isTemporary() ? 0 : 1;
+        }
+        if (outputs == 0) {
+            return;
+        }
+        Metrics.Sample sample = RUN_EXPRESSIONS.start();
+        try {
+            long start = System.nanoTime();
+            ExpressionProgram program = evaluateExpressions(source.toString());
+            program.getTargets().forEach(pendingNodes::remove);
+            logSink.log(LogLevel.INFO, "Evaluated {} expression(s) in one pass in {} ms, {} still pending.",
+                    order.size(), (System.nanoTime() - start) / 1_000_000, pendingNodes.size());
+        } catch (IOException | RuntimeException e) {
+            sample.fail();
+            logSink.log(LogLevel.ERROR, "Error evaluating lazy expressions - {}", e.getMessage());
+        } finally {
+            sample.close();
+        }
+    }
+
+    private void collectPending(String name, Set<String> visited, List<ExpressionProgram.Definition> order) {
+        ExpressionProgram.Definition node = expressionNodes.get(name);
+        if (node == null || (!node.isTemporary() && !pendingNodes.contains(name)) || !visited.add(name)) {
+            return;
+        }
+        for (String reference : node.getReferences()) {
+            collectPending(reference, visited, order);
+        }
+        order.add(node);
+    }
+
+    private Series getVariableSeries(String varName) {
+        ModelBindings.Accessor accessor = bindings.get(varName);
+        if (accessor != null && accessor.isArray()) {
+            return accessor.getSeries(modelInstance);
+        }
+        double[] values = scriptVariables.get(varName);
+        return values == null ? null : Series.of(values);
+    }
+
+    private Series getExpressionInput(String varName) {
+        Series values = getVariableSeries(varName);
+        if (values == null || pendingNodes.contains(varName)) {
+            throw new IllegalArgumentException((values == null ? "Unknown variable '" : "Could not evaluate '") + varName + "'");
+        }
+        return values;
+    }
+
+    public boolean isLazyExpressions() {
+        return lazyExpressions;
+    }
+
+    public void setLazyExpressions(boolean lazyExpressions) {
+        this.lazyExpressions = lazyExpressions;
+        logSink.log(LogLevel.INFO, "Lazy expression evaluation {}", lazyExpressions ? "enabled." : "disabled.");
+    }
+
+    public boolean isStaticScripts() {
+        return staticScripts;
+    }
+
+    public void setStaticScripts(boolean staticScripts) {
+        this.staticScripts = staticScripts;
+        logSink.log(LogLevel.INFO, "Static script compilation {}", staticScripts ? "enabled." : "disabled.");
+    }
+
+    public boolean isInteractive() {
+        return interactive;
+    }
+
+    public void setInteractive(boolean interactive) {
+        this.interactive = interactive;
+    }
+
+    private ScriptCache getScriptCache() {
+        return interactive ? ScriptCache.getInteractive() : ScriptCache.getDefault();
+    }
+
+    private Map<String, Class<?>> getBindingVariableTypes() {
+        Map<String, Class<?>> types = new LinkedHashMap<>();
+        for (Object key : binding.getVariables().keySet()) {
+            String varName = (String) key;
+            Object value = binding.getVariable(varName);
+            if (value instanceof double[]) {
+                types.put(varName, double[].class);
+            } else if (value instanceof Integer) {
+                types.put(varName, int.class);
+            }
+        }
+        return types;
+    }
+
+    private Map<String, double[]> setBindingVariables(Set<String> referenced) {
+        Map<String, double[]> boundInputs = new HashMap<>();
+        for (ModelBindings.Accessor accessor : bindings.all()) {
+            Object value = accessor.get(modelInstance);
+            if (!(value instanceof Series)) {
+                binding.setVariable(accessor.getName(), value);
+            } else if (referenced.contains(accessor.getName())) {
+                double[] values = ((Series) value).toArray();
+                boundInputs.put(accessor.getName(), values);
+                binding.setVariable(accessor.getName(), values);
+            } else {
+                binding.getVariables().remove(accessor.getName());
+            }
+        }
+        for (Map.Entry<String, double[]> entry : scriptVariables.entrySet()) {
+            binding.setVariable(entry.getKey(), entry.getValue());
+        }
+        return boundInputs;
+    }
+
+    private void storeChangedInputs(Map<String, double[]> boundInputs) {
+        for (Map.Entry<String, double[]> entry : boundInputs.entrySet()) {
+            ModelBindings.Accessor accessor = bindings.get(entry.getKey());
+            Object bound = binding.getVariable(entry.getKey());
+            double[] values = bound instanceof double[] ? (double[]) bound : entry.getValue();
+            if (!accessor.getSeries(modelInstance).contentEquals(values)) {
+                accessor.setArray(modelInstance, values);
+                markDirty(entry.getKey(), 0);
             }
         }
     }
@@ -171,9 +680,9 @@ public class Controller {
                 try {
                     double[] value = (double[]) binding.getVariable(varName);
                     scriptVariables.put(varName, value);
-                    historyWindow.appendLog("INFO", "Script variable '" + varName + "' = " + Arrays.toString(value));
+                    logSink.log(LogLevel.INFO, "Script variable '{}' = {}", varName, value);
                 } catch (ClassCastException e) {
-                    historyWindow.appendLog("ERROR", "Variable '" + varName + "' is not of type double[].");
+                    logSink.log(LogLevel.ERROR, "Variable '{}' is not of type double[].", varName);
                     throw e;
                 }
             }
@@ -183,7 +692,7 @@ public class Controller {
 
 
     public Controller runScriptFromFile(String fname) {
-        historyWindow.appendLog("INFO", "Executing script from file: " + fname);
+        logSink.log(LogLevel.INFO, "Executing script from file: {}", fname);
         try {
             StringBuilder scriptBuilder = new StringBuilder();
             try (BufferedReader reader = new BufferedReader(new FileReader(fname))) {
@@ -192,155 +701,194 @@ public class Controller {
                     scriptBuilder.append(line).append("\n");
                 }
             }
-            runScript(scriptBuilder.toString());
-            historyWindow.appendLog("INFO", "Script executed from file: " + fname);
+            if (ExpressionProgram.isExpressionFile(fname)) {
+                runExpressions(scriptBuilder.toString());
+            } else {
+                runScript(scriptBuilder.toString());
+            }
+            logSink.log(LogLevel.INFO, "Script executed from file: {}", fname);
         } catch (IOException e) {
-            historyWindow.appendLog("ERROR", "Error reading script file: " + fname + " - " + e.getMessage());
-            JOptionPane.showMessageDialog(null, "Error reading script file: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            logSink.log(LogLevel.ERROR, "Error reading script file: {} - {}", fname, e.getMessage());
+            logSink.showError("Error", "Error reading script file: " + e.getMessage());
         }
         return this;
     }
 
     public ModelVariables getModelVariables() {
+        materialize(null);
+        Metrics.Sample sample = GET_MODEL_VARIABLES.start();
         ModelVariables modelVar = new ModelVariables();
         modelVar.periodCount = periodCount;
-        modelVar.periodLabels.addAll(periodLabels);
+        modelVar.periodLabels = periodLabels;
 
         for (String varName : modelVariableNames) {
             try {
-                Field f = modelClass.getDeclaredField(varName);
-                f.setAccessible(true);
-                double[] val = (double[])f.get(modelInstance);
+                ModelBindings.Accessor accessor = bindings.get(varName);
+                Series val = accessor.getSeries(modelInstance);
                 modelVar.names.add(varName);
                 modelVar.values.add(val);
-            } catch (NoSuchFieldException | IllegalAccessException | ClassCastException e) {
-                historyWindow.appendLog("ERROR", "Error retrieving variable '" + varName + "': " + e.getMessage());
+                if (!accessor.isOutput()) {
+                    modelVar.inputNames.add(varName);
+                }
+            } catch (ClassCastException e) {
+                logSink.log(LogLevel.ERROR, "Error retrieving variable '{}': {}", varName, e.getMessage());
             }
         }
 
         for (Map.Entry<String, double[]> entry : scriptVariables.entrySet()) {
             modelVar.names.add(entry.getKey());
-            modelVar.values.add(entry.getValue());
+            modelVar.values.add(Series.of(entry.getValue()));
         }
 
+        sample.close();
         return modelVar;
     }
     public void setModel(String modelName) {
         try {
-            this.modelClass = Class.forName(modelName);
-
-            try {
-                this.modelInstance = modelClass.getDeclaredConstructor(HistoryWindow.class).newInstance(historyWindow);
-            } catch (NoSuchMethodException ex) {
-
-                historyWindow.appendLog("WARNING",
-                        "Model " + modelName + " has no (HistoryWindow) constructor.");
-                this.modelInstance = modelClass.getDeclaredConstructor().newInstance();
+            ModelDefinition next = ModelDefinition.of(modelName);
+            if (!next.hasLogSinkConstructor()) {
+                logSink.log(LogLevel.WARNING, "Model {} has no (LogSink) constructor.", modelName);
             }
+            useDefinition(next);
 
-
-            binding = new Binding();
-            groovy = new GroovyShell(binding);
+            binding = null;
             scriptVariables = new LinkedHashMap<>();
+            invalidate();
 
-            modelVariableNames.clear();
-            for (Field f : modelClass.getDeclaredFields()) {
-                if (f.isAnnotationPresent(Bind.class) && !f.getName().equals(FIELD_LL)) {
-                    modelVariableNames.add(f.getName());
-                }
-            }
-
-            historyWindow.appendLog("INFO", "Controller re-initialized with model: " + modelName);
+            logSink.log(LogLevel.INFO, "Controller re-initialized with model: {}", modelName);
         } catch (Exception e) {
-            historyWindow.appendLog("ERROR", "Failed to re-initialize Controller with model: " + modelName + " - " + e.getMessage());
+            logSink.log(LogLevel.ERROR, "Failed to re-initialize Controller with model: {} - {}", modelName, e.getMessage());
             e.printStackTrace();
         }
     }
 
+    public Controller reloadModel(ModelDefinition next) {
+        Object previousInstance = modelInstance;
+        ModelBindings previousBindings = bindings;
+        try {
+            useDefinition(next);
+        } catch (ReflectiveOperationException e) {
+            logSink.log(LogLevel.ERROR, "Failed to instantiate reloaded model {} - {}", next.getName(), e.getMessage());
+            return this;
+        }
+        for (ModelBindings.Accessor accessor : bindings.all()) {
+            ModelBindings.Accessor previous = previousBindings.get(accessor.getName());
+            if (previous == null) {
+                continue;
+            }
+            if (accessor.isPeriodCount() && previous.isPeriodCount()) {
+                accessor.setInt(modelInstance, previous.getInt(previousInstance));
+            } else if (accessor.isArray() && previous.isArray() && !accessor.isOutput() && !previous.isOutput()) {
+                accessor.setSeries(modelInstance, previous.getSeries(previousInstance));
+            }
+        }
+        dirtyFrom = 0;
+        logSink.log(LogLevel.INFO, "Model reloaded as {}, inputs kept for {} periods.", next.getName(), periodCount);
+        return this;
+    }
+
     public String getResultsAsTsv() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("LATA");
-        for (String lbl : periodLabels) {
-            sb.append("\t").append(lbl);
+        StringWriter out = new StringWriter();
+        try {
+            exportResults(ResultsExporter.to(out, ResultsExporter.Format.TSV, null));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        sb.append("\n");
+        logSink.log(LogLevel.INFO, "Generated TSV results.");
+        return out.toString();
+    }
 
-        for (Field f : modelClass.getDeclaredFields()) {
-            if (f.isAnnotationPresent(Bind.class)) {
-                f.setAccessible(true);
-                String varName = f.getName();
-                sb.append(varName);
+    public Controller exportResults(String fname, ResultsExporter.Format format, Collection<String> variables) {
+        try (FileChannel channel = FileChannel.open(Paths.get(fname),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long start = System.nanoTime();
+            exportResults(ResultsExporter.to(channel, format, variables));
+            logSink.log(LogLevel.INFO, "Results ({}) exported in {} ms to: {}", format, (System.nanoTime() - start) / 1_000_000, fname);
+        } catch (ClosedByInterruptException e) {
+            logSink.log(LogLevel.WARNING, "Exporting results to {} was cancelled.", fname);
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logSink.log(LogLevel.ERROR, "Error exporting results: {} - {}", fname, e.getMessage());
+        }
+        return this;
+    }
 
-                try {
-                    if (varName.equals(FIELD_LL)) {
-                        int llVal = f.getInt(modelInstance);
-                        for (int i = 0; i < periodCount; i++) {
-                            sb.append("\t").append(llVal);
-                        }
-                    } else if (f.getType() == double[].class) {
-                        double[] arr = (double[]) f.get(modelInstance);
-                        for (double d : arr) {
-                            sb.append("\t").append(d);
-                        }
+    public long exportResults(ResultsExporter exporter) throws IOException {
+        materialize(exporter.getVariables());
+        Metrics.Sample sample = EXPORT.start();
+        try {
+            if (exporter.getVariables() != null) {
+                for (String name : exporter.getVariables()) {
+                    if (bindings.get(name) == null && !scriptVariables.containsKey(name)) {
+                        logSink.log(LogLevel.WARNING, "Unknown variable '{}' skipped in export.", name);
                     }
-                } catch (IllegalAccessException e) {
-                    historyWindow.appendLog("ERROR", "Error reading field '" + varName + "': " + e.getMessage());
                 }
-                sb.append("\n");
             }
+            exporter.writeLabels("LATA", periodLabels);
+            for (ModelBindings.Accessor accessor : bindings.all()) {
+                if (accessor.isPeriodCount()) {
+                    exporter.writeRow(accessor.getName(), accessor.getInt(modelInstance), periodCount);
+                } else if (accessor.isArray()) {
+                    exporter.writeRow(accessor.getName(), accessor.getSeries(modelInstance));
+                } else {
+                    exporter.writeRow(accessor.getName(), (Series) null);
+                }
+            }
+            for (Map.Entry<String, double[]> entry : scriptVariables.entrySet()) {
+                exporter.writeRow(entry.getKey(), entry.getValue());
+            }
+            long written = exporter.finish();
+            METRICS.counter("export.chars").add(written);
+            return written;
+        } catch (IOException | RuntimeException e) {
+            sample.fail();
+            throw e;
+        } finally {
+            sample.close();
         }
+    }
 
-        for (Map.Entry<String, double[]> entry : scriptVariables.entrySet()) {
-            String varName = entry.getKey();
-            sb.append(varName);
 
-            double[] arr = entry.getValue();
-            for (double d : arr) {
-                sb.append("\t").append(d);
-            }
-            sb.append("\n");
+    private static class ScriptRecord {
+        final String code;
+        final Set<String> reads;
+        final Set<String> writes;
+        final boolean expressions;
+
+        ScriptRecord(String code, Set<String> reads, Set<String> writes, boolean expressions) {
+            this.code = code;
+            this.reads = reads;
+            this.writes = writes;
+            this.expressions = expressions;
         }
-        historyWindow.appendLog("INFO", "Generated TSV results.");
-        return sb.toString();
     }
 
-
     public static class ModelVariables {
         public int periodCount;
         public List<String> periodLabels = new ArrayList<>();
         public List<String> names = new ArrayList<>();
-        public List<double[]> values = new ArrayList<>();
+        public List<Series> values = new ArrayList<>();
+        public Set<String> inputNames = new LinkedHashSet<>();
     }
 
 
-    private Field getBindFieldByName(String name) {
-        for (Field f : modelClass.getDeclaredFields()) {
-            if (f.isAnnotationPresent(Bind.class) && f.getName().equals(name)) {
-                return f;
-            }
-        }
-        return null;
-    }
-
     private void setFieldValue(String fieldName, Object val) {
-        Field f = getBindFieldByName(fieldName);
-        if (f == null) {
-            historyWindow.appendLog("WARNING", "Field '" + fieldName + "' not found in the model.");
+        ModelBindings.Accessor accessor = bindings.get(fieldName);
+        if (accessor == null) {
+            logSink.log(LogLevel.WARNING, "Field '{}' not found in the model.", fieldName);
             return;
         }
-        f.setAccessible(true);
         try {
-            if (f.getName().equals(FIELD_LL)) {
-                f.setInt(modelInstance, (Integer) val);
-                historyWindow.appendLog("INFO", "Set LL to value: " + val);
+            if (accessor.isPeriodCount()) {
+                accessor.setInt(modelInstance, (Integer) val);
+                logSink.log(LogLevel.INFO, "Set LL to value: {}", val);
             } else {
-                f.set(modelInstance, (double[]) val);
-                historyWindow.appendLog("INFO", "Set field '" + fieldName + "' to array of length " + ((double[]) val).length);
+                Series series = val instanceof Series ? (Series) val : Series.of((double[]) val);
+                accessor.setSeries(modelInstance, series);
+                logSink.log(LogLevel.INFO, "Set field '{}' to array of length {}", fieldName, series.getLength());
             }
-        } catch (IllegalAccessException e) {
-            historyWindow.appendLog("ERROR", "Error setting field value for '" + fieldName + "': " + e.getMessage());
         } catch (ClassCastException e) {
-            historyWindow.appendLog("ERROR", "Type mismatch when setting field '" + fieldName + "': " + e.getMessage());
+            logSink.log(LogLevel.ERROR, "Type mismatch when setting field '{}': {}", fieldName, e.getMessage());
         }
     }
 
@@ -0,0 +1,225 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+
+public class DataFileParser {
+    private static final String LABELS_PREFIX = "LATA";
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final int MAX_FAST_EXPONENT = 22;
+    private static final double[] POWERS_OF_TEN = new double[MAX_FAST_EXPONENT + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+        }
+    }
+
+    public interface Handler {
+        void onPeriodLabels(List<String> labels);
+
+        void onVariable(String name, double[] values, int count);
+
+        void onInvalidValue(String name, String token);
+    }
+
+    private final Handler handler;
+    private final GrowableDoubleArray values = new GrowableDoubleArray();
+    private final List<String> labels = new ArrayList<>();
+    private byte[] token = new byte[64];
+    private int tokenLength;
+    private String lineName;
+    private boolean labelLine;
+
+    private DataFileParser(Handler handler) {
+        this.handler = handler;
+    }
+
+    public static void parse(Path file, Handler handler) throws IOException {
+        parse(file, handler, null);
+    }
+
+    public static void parse(Path file, Handler handler, DoubleConsumer progress) throws IOException {
+        new DataFileParser(handler).parse(file, progress);
+    }
+
+    private void parse(Path file, DoubleConsumer progress) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(READ_BUFFER_SIZE, size + 1));
+            byte[] bytes = buffer.array();
+            long position = 0;
+            int read;
+            while ((read = channel.read(buffer)) != -1) {
+                position += read;
+                if (progress != null && size > 0) {
+                    progress.accept(Math.min(1.0, (double) position / size));
+                }
+                for (int i = 0; i < read; i++) {
+                    byte b = bytes[i];
+                    if (b == '\n' || b == '\r') {
+                        endToken();
+                        endLine();
+                    } else if (b == ' ' || b == '\t' || b == '\f' || b == 0x0B) {
+                        endToken();
+                    } else {
+                        appendToToken(b);
+                    }
+                }
+                buffer.clear();
+            }
+            endToken();
+            endLine();
+        }
+    }
+
+    private void appendToToken(byte b) {
+        if (tokenLength == token.length) {
+            token = Arrays.copyOf(token, token.length * 2);
+        }
+        token[tokenLength++] = b;
+    }
+
+    private void endToken() {
+        if (tokenLength == 0) {
+            return;
+        }
+        if (lineName == null) {
+            lineName = new String(token, 0, tokenLength, StandardCharsets.UTF_8);
+            labelLine = lineName.startsWith(LABELS_PREFIX);
+        } else if (labelLine) {
+            labels.add(new String(token, 0, tokenLength, StandardCharsets.UTF_8));
+        } else {
+            double value = parseDouble(token, tokenLength);
+            if (Double.isNaN(value) && !isLiteralNaN(token, tokenLength)) {
+                handler.onInvalidValue(lineName, new String(token, 0, tokenLength, StandardCharsets.UTF_8));
+            } else {
+                values.add(value);
+            }
+        }
+        tokenLength = 0;
+    }
+
+    private void endLine() {
+        if (lineName == null) {
+            return;
+        }
+        if (labelLine) {
+            handler.onPeriodLabels(new ArrayList<>(labels));
+            labels.clear();
+        } else {
+            handler.onVariable(lineName, values.array(), values.size());
+            values.clear();
+        }
+        lineName = null;
+    }
+
+    static double parseDouble(byte[] b, int len) {
+        int i = 0;
+        boolean negative = false;
+        if (b[0] == '-' || b[0] == '+') {
+            negative = b[0] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        int digits = 0;
+        for (; i < len && b[i] >= '0' && b[i] <= '9'; i++, digits++) {
+            if (mantissa != 0 || b[i] != '0') {
+                mantissa = mantissa * 10 + (b[i] - '0');
+                significantDigits++;
+            }
+        }
+        if (i < len && b[i] == '.') {
+            for (i++; i < len && b[i] >= '0' && b[i] <= '9'; i++, digits++) {
+                if (mantissa != 0 || b[i] != '0') {
+                    mantissa = mantissa * 10 + (b[i] - '0');
+                    significantDigits++;
+                }
+                exponent--;
+            }
+        }
+        if (digits == 0) {
+            return parseSlow(b, len);
+        }
+        if (i < len && (b[i] == 'e' || b[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < len && (b[i] == '-' || b[i] == '+')) {
+                negativeExponent = b[i] == '-';
+                i++;
+            }
+            int explicitExponent = 0;
+            int exponentDigits = 0;
+            for (; i < len && b[i] >= '0' && b[i] <= '9' && exponentDigits < 6; i++, exponentDigits++) {
+                explicitExponent = explicitExponent * 10 + (b[i] - '0');
+            }
+            if (exponentDigits == 0) {
+                return parseSlow(b, len);
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (i != len || significantDigits > MAX_FAST_DIGITS) {
+            return parseSlow(b, len);
+        }
+
+        double value;
+        if (mantissa == 0) {
+            value = 0.0;
+        } else if (exponent >= 0 && exponent <= MAX_FAST_EXPONENT) {
+            value = mantissa * POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && -exponent <= MAX_FAST_EXPONENT) {
+            value = mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            return parseSlow(b, len);
+        }
+        return negative ? -value : value;
+    }
+
+    private static double parseSlow(byte[] b, int len) {
+        try {
+            return Double.parseDouble(new String(b, 0, len, StandardCharsets.ISO_8859_1));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static boolean isLiteralNaN(byte[] b, int len) {
+        int start = len > 0 && (b[0] == '-' || b[0] == '+') ? 1 : 0;
+        return len - start == 3 && b[start] == 'N' && b[start + 1] == 'a' && b[start + 2] == 'N';
+    }
+
+    static class GrowableDoubleArray {
+        private double[] data = new double[256];
+        private int size;
+
+        void add(double value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            data[size++] = value;
+        }
+
+        double[] array() {
+            return data;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
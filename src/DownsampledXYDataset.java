@@ -0,0 +1,173 @@
+import org.jfree.data.DomainInfo;
+import org.jfree.data.Range;
+import org.jfree.data.xy.AbstractXYDataset;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DownsampledXYDataset extends AbstractXYDataset implements DomainInfo {
+    private final int length;
+    private final List<String> seriesKeys = new ArrayList<>();
+    private final List<double[]> seriesValues = new ArrayList<>();
+    private final List<int[]> sampledIndices = new ArrayList<>();
+    private final List<Integer> sampledCounts = new ArrayList<>();
+    private int targetPoints;
+    private int visibleFrom;
+    private int visibleTo;
+
+    public DownsampledXYDataset(int length, int targetPoints) {
+        this.length = length;
+        this.targetPoints = Math.max(3, targetPoints);
+        this.visibleFrom = 0;
+        this.visibleTo = length - 1;
+    }
+
+    public void addSeries(String key, double[] values) {
+        if (values.length < length) {
+            throw new IllegalArgumentException("Series '" + key + "' has " + values.length + " values, expected " + length);
+        }
+        seriesKeys.add(key);
+        seriesValues.add(values);
+        sampledIndices.add(new int[Math.min(length, targetPoints)]);
+        sampledCounts.add(0);
+        resample(seriesKeys.size() - 1);
+        fireDatasetChanged();
+    }
+
+    public void setVisibleRange(double lower, double upper) {
+        int from = (int) Math.max(0, Math.floor(lower) - 1);
+        int to = (int) Math.min(length - 1, Math.ceil(upper) + 1);
+        if (from == visibleFrom && to == visibleTo || from > to) {
+            return;
+        }
+        visibleFrom = from;
+        visibleTo = to;
+        resampleAll();
+    }
+
+    public void setTargetPoints(int targetPoints) {
+        targetPoints = Math.max(3, targetPoints);
+        if (targetPoints == this.targetPoints) {
+            return;
+        }
+        this.targetPoints = targetPoints;
+        for (int s = 0; s < sampledIndices.size(); s++) {
+            sampledIndices.set(s, new int[Math.min(length, targetPoints)]);
+        }
+        resampleAll();
+    }
+
+    public int getVisiblePointCount() {
+        return Math.max(0, visibleTo - visibleFrom + 1);
+    }
+
+    public boolean isDownsampled() {
+        return getVisiblePointCount() > targetPoints;
+    }
+
+    private void resampleAll() {
+        for (int s = 0; s < seriesKeys.size(); s++) {
+            resample(s);
+        }
+        fireDatasetChanged();
+    }
+
+    private void resample(int series) {
+        sampledCounts.set(series, lttb(seriesValues.get(series), visibleFrom, visibleTo, targetPoints, sampledIndices.get(series)));
+    }
+
+    static int lttb(double[] values, int from, int to, int threshold, int[] out) {
+        int n = to - from + 1;
+        if (n <= 0) {
+            return 0;
+        }
+        if (n <= threshold) {
+            for (int i = 0; i < n; i++) {
+                out[i] = from + i;
+            }
+            return n;
+        }
+
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int count = 0;
+        int selected = from;
+        out[count++] = selected;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int averageStart = from + (int) ((bucket + 1) * bucketSize) + 1;
+            int averageEnd = Math.min(from + (int) ((bucket + 2) * bucketSize) + 1, to + 1);
+            double averageX = (averageStart + averageEnd - 1) / 2.0;
+            double averageY = 0;
+            for (int i = averageStart; i < averageEnd; i++) {
+                averageY += values[i];
+            }
+            averageY /= averageEnd - averageStart;
+
+            int rangeStart = from + (int) (bucket * bucketSize) + 1;
+            int rangeEnd = from + (int) ((bucket + 1) * bucketSize) + 1;
+            double selectedY = values[selected];
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                double area = Math.abs((selected - averageX) * (values[i] - selectedY) - (selected - i) * (averageY - selectedY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = i;
+                }
+            }
+            selected = next;
+            out[count++] = selected;
+        }
+        out[count++] = to;
+        return count;
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return seriesKeys.size();
+    }
+
+    @Override
+    public Comparable<?> getSeriesKey(int series) {
+        return seriesKeys.get(series);
+    }
+
+    @Override
+    public int getItemCount(int series) {
+        return sampledCounts.get(series);
+    }
+
+    @Override
+    public Number getX(int series, int item) {
+        return getXValue(series, item);
+    }
+
+    @Override
+    public double getXValue(int series, int item) {
+        return sampledIndices.get(series)[item];
+    }
+
+    @Override
+    public Number getY(int series, int item) {
+        return getYValue(series, item);
+    }
+
+    @Override
+    public double getYValue(int series, int item) {
+        return seriesValues.get(series)[sampledIndices.get(series)[item]];
+    }
+
+    @Override
+    public double getDomainLowerBound(boolean includeInterval) {
+        return 0;
+    }
+
+    @Override
+    public double getDomainUpperBound(boolean includeInterval) {
+        return Math.max(0, length - 1);
+    }
+
+    @Override
+    public Range getDomainBounds(boolean includeInterval) {
+        return length == 0 ? null : new Range(0, length - 1);
+    }
+}
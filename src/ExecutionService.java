@@ -0,0 +1,135 @@
+import javax.swing.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class ExecutionService {
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    public interface Job<T> {
+        T run(Progress progress) throws Exception;
+    }
+
+    public interface Progress {
+        void update(String stage, double fraction);
+
+        boolean isCancelled();
+    }
+
+    public interface Listener {
+        void onProgress(String jobName, String stage, double fraction);
+
+        void onFinished(String jobName);
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "savings-worker-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LogSink logSink;
+    private final Listener listener;
+    private volatile Handle current;
+
+    public ExecutionService(LogSink logSink, Listener listener) {
+        this.logSink = logSink;
+        this.listener = listener;
+    }
+
+    public <T> Handle submit(String jobName, Job<T> job, Consumer<T> onSuccess) {
+        Handle handle = new Handle(jobName);
+        executor.execute(() -> execute(handle, job, onSuccess));
+        return handle;
+    }
+
+    public boolean cancelCurrent() {
+        Handle handle = current;
+        if (handle == null) {
+            return false;
+        }
+        handle.cancel();
+        return true;
+    }
+
+    public boolean isBusy() {
+        return current != null;
+    }
+
+    public void shutdown() {
+        cancelCurrent();
+        executor.shutdownNow();
+    }
+
+    private <T> void execute(Handle handle, Job<T> job, Consumer<T> onSuccess) {
+        if (handle.isCancelled()) {
+            logSink.log(LogLevel.WARNING, "'{}' was cancelled before it started.", handle.jobName);
+            return;
+        }
+        current = handle;
+        handle.attach(Thread.currentThread());
+        long start = System.nanoTime();
+        try {
+            handle.update("Started", -1);
+            T result = job.run(handle);
+            if (handle.isCancelled()) {
+                logSink.log(LogLevel.WARNING, "'{}' cancelled after {} ms.", handle.jobName, (System.nanoTime() - start) / 1_000_000);
+            } else {
+                logSink.log(LogLevel.INFO, "'{}' finished in {} ms.", handle.jobName, (System.nanoTime() - start) / 1_000_000);
+                SwingUtilities.invokeLater(() -> onSuccess.accept(result));
+            }
+        } catch (InterruptedException e) {
+            logSink.log(LogLevel.WARNING, "'{}' cancelled.", handle.jobName);
+        } catch (Exception e) {
+            logSink.log(LogLevel.ERROR, "'{}' failed - {}", handle.jobName, e.getMessage());
+            logSink.showError("Error", "'" + handle.jobName + "' failed: " + e.getMessage());
+        } finally {
+            handle.detach();
+            Thread.interrupted();
+            current = null;
+            SwingUtilities.invokeLater(() -> listener.onFinished(handle.jobName));
+        }
+    }
+
+    public class Handle implements Progress {
+        private final String jobName;
+        private volatile boolean cancelled;
+        private Thread runner;
+
+        Handle(String jobName) {
+            this.jobName = jobName;
+        }
+
+        public String getJobName() {
+            return jobName;
+        }
+
+        public synchronized void cancel() {
+            cancelled = true;
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void update(String stage, double fraction) {
+            SwingUtilities.invokeLater(() -> listener.onProgress(jobName, stage, fraction));
+        }
+
+        private synchronized void attach(Thread thread) {
+            runner = thread;
+            if (cancelled) {
+                thread.interrupt();
+            }
+        }
+
+        private synchronized void detach() {
+            runner = null;
+        }
+    }
+}
@@ -0,0 +1,466 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class ExpressionProgram {
+    private static final String CLASS_PREFIX = "Expr_";
+    private static final int CACHE_LIMIT = 256;
+    private static final Path CACHE_DIR = ModelPluginLoader.defaultCacheDir();
+    private static final Map<String, ExpressionProgram> PROGRAMS = new ConcurrentHashMap<>();
+    private static final Map<String, Kernel> KERNELS = new ConcurrentHashMap<>();
+    private static final Map<String, Integer> FUNCTIONS = Map.of(
+            "abs", 1, "sqrt", 1, "exp", 1, "log", 1, "min", 2, "max", 2, "pow", 2);
+
+    private final List<String> inputs;
+    private final List<String> targets;
+    private final Kernel kernel;
+
+    public interface Kernel {
+        void run(double[][] inputs, int[] counts, double[] tails, double[][] outputs, int length);
+    }
+
+    public static final class Definition {
+        private final String name;
+        private final String expression;
+        private final boolean temporary;
+        private final Set<String> references;
+
+        private Definition(String name, String expression, boolean temporary, Set<String> references) {
+            this.name = name;
+            this.expression = expression;
+            this.temporary = temporary;
+            this.references = references;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getExpression() {
+            return expression;
+        }
+
+        public boolean isTemporary() {
+            return temporary;
+        }
+
+        public Set<String> getReferences() {
+            return references;
+        }
+
+        @Override
+        public String toString() {
+            return (temporary ? "let " : "") + name + " = " + expression;
+        }
+    }
+
+    private ExpressionProgram(List<String> inputs, List<String> targets, Kernel kernel) {
+        this.inputs = inputs;
+        this.targets = targets;
+        this.kernel = kernel;
+    }
+
+    public static ExpressionProgram compile(String source, LogSink logSink) throws IOException {
+        ExpressionProgram program = PROGRAMS.get(source);
+        if (program != null) {
+            return program;
+        }
+        Parser parser = new Parser(source);
+        parser.parseProgram();
+        String body = parser.generate();
+        String key = JavaSourceCompiler.cacheKey(body);
+        Kernel kernel = KERNELS.get(key);
+        if (kernel == null) {
+            kernel = loadKernel(CLASS_PREFIX + key.substring(0, 32), body, key, logSink);
+            if (KERNELS.size() < CACHE_LIMIT) {
+                KERNELS.putIfAbsent(key, kernel);
+            }
+        }
+        program = new ExpressionProgram(List.copyOf(parser.inputs.keySet()), List.copyOf(parser.outputs.keySet()), kernel);
+        if (PROGRAMS.size() < CACHE_LIMIT) {
+            PROGRAMS.putIfAbsent(source, program);
+        }
+        return program;
+    }
+
+    public static List<Definition> parse(String source) {
+        Parser parser = new Parser(source);
+        parser.parseProgram();
+        return parser.definitions;
+    }
+
+    public static boolean isExpressionFile(String fname) {
+        return fname.endsWith(".expr");
+    }
+
+    public List<String> getInputs() {
+        return inputs;
+    }
+
+    public List<String> getTargets() {
+        return targets;
+    }
+
+    public double[][] run(Series[] inputSeries, int length) {
+        if (inputSeries.length != inputs.size()) {
+            throw new IllegalArgumentException("Expected " + inputs.size() + " input arrays, got " + inputSeries.length);
+        }
+        double[][] inputArrays = new double[inputSeries.length][];
+        int[] counts = new int[inputSeries.length];
+        double[] tails = new double[inputSeries.length];
+        for (int j = 0; j < inputSeries.length; j++) {
+            Series series = inputSeries[j];
+            if (series.getLength() < length) {
+                throw new IllegalArgumentException("'" + inputs.get(j) + "' has " + series.getLength()
+                        + " values but " + length + " are required.");
+            }
+            inputArrays[j] = series.getPhysical() != null ? series.getPhysical() : series.dense();
+            counts[j] = series.getPhysical() != null ? series.getPhysicalLength() : length;
+            tails[j] = series.getTail();
+        }
+        double[][] outputs = new double[targets.size()][length];
+        kernel.run(inputArrays, counts, tails, outputs, length);
+        return outputs;
+    }
+
+    private static Kernel loadKernel(String className, String body, String key, LogSink logSink) throws IOException {
+        long start = System.nanoTime();
+        Map<String, byte[]> classes = JavaSourceCompiler.loadFromDisk(CACHE_DIR, key, logSink);
+        boolean fromCache = classes != null;
+        if (!fromCache) {
+            String code = "public final class " + className + " implements ExpressionProgram.Kernel {\n" + body + "}\n";
+            classes = JavaSourceCompiler.compile("expressions", className, code);
+            JavaSourceCompiler.saveToDisk(CACHE_DIR, key, classes, logSink);
+        }
+        try {
+            Kernel kernel = (Kernel) JavaSourceCompiler.define(classes, className).getDeclaredConstructor().newInstance();
+            logSink.log(LogLevel.INFO, "Expression kernel {} {} in {} ms.", className,
+                    fromCache ? "loaded from bytecode cache" : "compiled", (System.nanoTime() - start) / 1_000_000);
+            return kernel;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to instantiate expression kernel " + className, e);
+        }
+    }
+
+    private static final class Parser {
+        private final String source;
+        private final Map<String, Integer> inputs = new LinkedHashMap<>();
+        private final Map<String, Integer> targets = new LinkedHashMap<>();
+        private final Map<String, Integer> outputs = new LinkedHashMap<>();
+        private final Set<Integer> temporaries = new TreeSet<>();
+        private final Set<Integer> lagged = new TreeSet<>();
+        private final List<Definition> definitions = new ArrayList<>();
+        private final StringBuilder loop = new StringBuilder();
+        private Set<String> references;
+        private int accumulators;
+        private int pos;
+        private int tokenEnd;
+        private int depth;
+
+        Parser(String source) {
+            this.source = source;
+        }
+
+        void parseProgram() {
+            while (true) {
+                skipBlank(true);
+                if (pos >= source.length()) {
+                    break;
+                }
+                int start = pos;
+                String target = identifier();
+                skipBlank(false);
+                boolean temporary = target.equals("let") && peek() != '=';
+                if (temporary) {
+                    target = identifier();
+                    skipBlank(false);
+                }
+                expect('=');
+                skipBlank(false);
+                int expressionStart = pos;
+                references = new LinkedHashSet<>();
+                StringBuilder statement = new StringBuilder();
+                String value = expression(statement);
+                String expressionText = source.substring(expressionStart, tokenEnd);
+                skipBlank(false);
+                if (pos < source.length() && source.charAt(pos) != '\n' && source.charAt(pos) != ';') {
+                    throw error("Unexpected '" + source.charAt(pos) + "'");
+                }
+                if (targets.containsKey(target)) {
+                    pos = start;
+                    throw error("'" + target + "' is assigned more than once");
+                }
+                int k = targets.size();
+                targets.put(target, k);
+                loop.append(statement)
+                        .append("            double t").append(k).append(" = ").append(value).append(";\n");
+                if (temporary) {
+                    temporaries.add(k);
+                } else {
+                    loop.append("            r").append(k).append("[i] = t").append(k).append(";\n");
+                    outputs.put(target, k);
+                }
+                definitions.add(new Definition(target, expressionText, temporary, references));
+            }
+            if (targets.isEmpty()) {
+                throw new IllegalArgumentException("No expressions to evaluate");
+            }
+        }
+
+        String generate() {
+            StringBuilder code = new StringBuilder();
+            code.append("    @Override\n")
+                    .append("    public void run(double[][] in, int[] counts, double[] tails, double[][] out, int n) {\n");
+            for (int j = 0; j < inputs.size(); j++) {
+                code.append("        double[] a").append(j).append(" = in[").append(j).append("];\n")
+                        .append("        int n").append(j).append(" = counts[").append(j).append("];\n")
+                        .append("        double s").append(j).append(" = tails[").append(j).append("];\n");
+            }
+            int o = 0;
+            for (int k : outputs.values()) {
+                code.append("        double[] r").append(k).append(" = out[").append(o++).append("];\n");
+            }
+            for (int m = 0; m < accumulators; m++) {
+                code.append("        double c").append(m).append(" = 0.0;\n");
+            }
+            for (int k : lagged) {
+                code.append("        double p").append(k).append(" = 0.0;\n");
+            }
+            code.append("        for (int i = 0; i < n; i++) {\n").append(loop);
+            for (int k : lagged) {
+                code.append("            p").append(k).append(" = t").append(k).append(";\n");
+            }
+            code.append("        }\n")
+                    .append("    }\n");
+            return code.toString();
+        }
+
+        private String expression(StringBuilder statement) {
+            String left = term(statement);
+            while (true) {
+                skipBlank(depth > 0);
+                char op = peek();
+                if (op != '+' && op != '-') {
+                    return left;
+                }
+                pos++;
+                left = "(" + left + " " + op + " " + term(statement) + ")";
+            }
+        }
+
+        private String term(StringBuilder statement) {
+            String left = unary(statement);
+            while (true) {
+                skipBlank(depth > 0);
+                char op = peek();
+                if (op != '*' && op != '/') {
+                    return left;
+                }
+                pos++;
+                left = "(" + left + " " + op + " " + unary(statement) + ")";
+            }
+        }
+
+        private String unary(StringBuilder statement) {
+            skipBlank(depth > 0);
+            if (peek() == '-') {
+                pos++;
+                return "(-" + unary(statement) + ")";
+            }
+            if (peek() == '+') {
+                pos++;
+                return unary(statement);
+            }
+            return primary(statement);
+        }
+
+        private String primary(StringBuilder statement) {
+            skipBlank(depth > 0);
+            char c = peek();
+            if (c == '(') {
+                pos++;
+                depth++;
+                String inner = expression(statement);
+                skipBlank(true);
+                expect(')');
+                depth--;
+                return inner;
+            }
+            if (Character.isDigit(c) || c == '.') {
+                return number();
+            }
+            if (!Character.isJavaIdentifierStart(c)) {
+                throw error(pos >= source.length() ? "Unexpected end of expression" : "Unexpected '" + c + "'");
+            }
+            String name = identifier();
+            skipBlank(false);
+            if (peek() != '(') {
+                return current(name);
+            }
+            pos++;
+            depth++;
+            String call;
+            switch (name) {
+                case "diff" -> {
+                    String arg = nameArgument(name);
+                    call = "(i == 0 ? 0.0 : " + current(arg) + " - " + previous(arg) + ")";
+                }
+                case "lag" -> call = "(i == 0 ? 0.0 : " + previous(nameArgument(name)) + ")";
+                case "cumsum" -> {
+                    String arg = expression(statement);
+                    int m = accumulators++;
+                    statement.append("            c").append(m).append(" += ").append(arg).append(";\n");
+                    call = "c" + m;
+                }
+                default -> {
+                    Integer arity = FUNCTIONS.get(name);
+                    if (arity == null) {
+                        throw error("Unknown function '" + name + "'");
+                    }
+                    List<String> args = new ArrayList<>();
+                    args.add(expression(statement));
+                    for (int a = 1; a < arity; a++) {
+                        skipBlank(true);
+                        expect(',');
+                        args.add(expression(statement));
+                    }
+                    call = "Math." + name + "(" + String.join(", ", args) + ")";
+                }
+            }
+            skipBlank(true);
+            expect(')');
+            depth--;
+            return call;
+        }
+
+        private String nameArgument(String function) {
+            skipBlank(true);
+            int start = pos;
+            String name = Character.isJavaIdentifierStart(peek()) ? identifier() : null;
+            skipBlank(true);
+            if (name == null || peek() != ')') {
+                pos = start;
+                throw error(function + "() takes a single variable name");
+            }
+            return name;
+        }
+
+        private String current(String name) {
+            references.add(name);
+            Integer k = targets.get(name);
+            if (k != null) {
+                return "t" + k;
+            }
+            int j = input(name);
+            return "(i < n" + j + " ? a" + j + "[i] : s" + j + ")";
+        }
+
+        private String previous(String name) {
+            references.add(name);
+            Integer k = targets.get(name);
+            if (k != null && temporaries.contains(k)) {
+                lagged.add(k);
+                return "p" + k;
+            }
+            if (k != null) {
+                return "r" + k + "[i - 1]";
+            }
+            int j = input(name);
+            return "(i - 1 < n" + j + " ? a" + j + "[i - 1] : s" + j + ")";
+        }
+
+        private int input(String name) {
+            return inputs.computeIfAbsent(name, n -> inputs.size());
+        }
+
+        private String number() {
+            int start = pos;
+            while (pos < source.length() && (Character.isDigit(peek()) || peek() == '.')) {
+                pos++;
+            }
+            if (pos < source.length() && (peek() == 'e' || peek() == 'E')) {
+                pos++;
+                if (peek() == '+' || peek() == '-') {
+                    pos++;
+                }
+                while (pos < source.length() && Character.isDigit(peek())) {
+                    pos++;
+                }
+            }
+            String text = source.substring(start, pos);
+            double value;
+            try {
+                value = Double.parseDouble(text);
+            } catch (NumberFormatException e) {
+                value = Double.NaN;
+            }
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                pos = start;
+                throw error("Invalid number '" + text + "'");
+            }
+            tokenEnd = pos;
+            return Double.toString(value);
+        }
+
+        private String identifier() {
+            int start = pos;
+            if (pos < source.length() && Character.isJavaIdentifierStart(peek())) {
+                pos++;
+                while (pos < source.length() && Character.isJavaIdentifierPart(peek())) {
+                    pos++;
+                }
+            }
+            if (start == pos) {
+                throw error("Expected a variable name");
+            }
+            tokenEnd = pos;
+            return source.substring(start, pos);
+        }
+
+        private void expect(char expected) {
+            if (peek() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+            pos++;
+            tokenEnd = pos;
+        }
+
+        private char peek() {
+            return pos < source.length() ? source.charAt(pos) : '\0';
+        }
+
+        private void skipBlank(boolean newlines) {
+            while (pos < source.length()) {
+                char c = source.charAt(pos);
+                if (c == '#' || source.startsWith("//", pos)) {
+                    while (pos < source.length() && source.charAt(pos) != '\n') {
+                        pos++;
+                    }
+                } else if (c == ' ' || c == '\t' || c == '\r' || (newlines && (c == '\n' || c == ';'))) {
+                    pos++;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            int line = 1;
+            int lineStart = 0;
+            for (int p = 0; p < Math.min(pos, source.length()); p++) {
+                if (source.charAt(p) == '\n') {
+                    line++;
+                    lineStart = p + 1;
+                }
+            }
+            return new IllegalArgumentException(message + " at line " + line + ", column " + (pos - lineStart + 1));
+        }
+    }
+}
@@ -0,0 +1,176 @@
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class HeadlessRunner {
+    private final String modelName;
+    private final List<String> scriptFiles;
+    private final LogSink logSink;
+    private boolean snapshotOutput;
+    private ResultsExporter.Format exportFormat = ResultsExporter.Format.TSV;
+    private Collection<String> exportColumns;
+    private int threads = 1;
+
+    public HeadlessRunner(String modelName, List<String> scriptFiles, LogSink logSink) {
+        this.modelName = modelName;
+        this.scriptFiles = scriptFiles;
+        this.logSink = logSink;
+    }
+
+    public void setSnapshotOutput(boolean snapshotOutput) {
+        this.snapshotOutput = snapshotOutput;
+    }
+
+    public void setExportFormat(ResultsExporter.Format exportFormat) {
+        this.exportFormat = exportFormat;
+    }
+
+    public void setExportColumns(Collection<String> exportColumns) {
+        this.exportColumns = exportColumns;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int runDirectory(Path dataDir, Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        List<Path> dataFiles = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dataDir, "*.{txt,snap}")) {
+            for (Path p : stream) {
+                if (Files.isRegularFile(p)) {
+                    dataFiles.add(p);
+                }
+            }
+        }
+        dataFiles.sort(null);
+
+        if (threads > 1 && dataFiles.size() > 1) {
+            runConcurrently(dataFiles, outputDir);
+        } else {
+            for (Path dataFile : dataFiles) {
+                runFile(dataFile, outputDir);
+            }
+        }
+        logSink.log(LogLevel.INFO, "Processed {} data files from: {}", dataFiles.size(), dataDir);
+        return dataFiles.size();
+    }
+
+    private void runConcurrently(List<Path> dataFiles, Path outputDir) throws IOException {
+        ModelDefinition definition;
+        try {
+            definition = ModelDefinition.of(modelName);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Unknown model: " + modelName, e);
+        }
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        try (ScenarioPool pool = new ScenarioPool(definition, threads, logSink)) {
+            for (Path dataFile : dataFiles) {
+                ScenarioPool.Session session = pool.open(dataFile.getFileName().toString());
+                results.add(session.submit(controller -> {
+                    runFile(controller, dataFile, outputDir);
+                    return null;
+                }));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            throw new IOException("Scenario run failed - " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    public void runFile(Path dataFile, Path outputDir) throws IOException {
+        runFile(new Controller(modelName, logSink), dataFile, outputDir);
+    }
+
+    private void runFile(Controller controller, Path dataFile, Path outputDir) {
+        String fileName = dataFile.getFileName().toString();
+        if (fileName.endsWith(SnapshotFile.EXTENSION)) {
+            controller.readSnapshotFrom(dataFile.toString());
+        } else {
+            controller.readDataFrom(dataFile.toString());
+        }
+        controller.runModel();
+        for (String scriptFile : scriptFiles) {
+            controller.runScriptFromFile(scriptFile);
+        }
+
+        int extension = fileName.lastIndexOf('.');
+        String baseName = extension > 0 ? fileName.substring(0, extension) : fileName;
+        Path outputFile;
+        if (snapshotOutput) {
+            outputFile = outputDir.resolve(baseName + SnapshotFile.EXTENSION);
+            controller.writeSnapshot(outputFile.toString(), SnapshotFile.Encoding.AUTO);
+        } else {
+            outputFile = outputDir.resolve(baseName + "." + exportFormat.name().toLowerCase());
+            controller.exportResults(outputFile.toString(), exportFormat, exportColumns);
+        }
+        logSink.log(LogLevel.INFO, "Results written to: {}", outputFile);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: HeadlessRunner <dataDir> <modelName|Model.java> [--out <dir>] [--script <file.groovy|file.expr>]... [--format tsv|csv|snap] [--columns <a,b,...>] [--threads <n>] [--verbose]");
+            System.exit(2);
+        }
+
+        Path dataDir = Paths.get(args[0]);
+        String modelName = args[1];
+        Path outputDir = dataDir.resolve("results");
+        List<String> scriptFiles = new ArrayList<>();
+        boolean verbose = false;
+        boolean snapshotOutput = false;
+        ResultsExporter.Format exportFormat = ResultsExporter.Format.TSV;
+        List<String> exportColumns = null;
+        int threads = 1;
+
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--out":
+                    outputDir = Paths.get(args[++i]);
+                    break;
+                case "--script":
+                    scriptFiles.add(args[++i]);
+                    break;
+                case "--format":
+                    String format = args[++i];
+                    snapshotOutput = format.equals("snap");
+                    if (!snapshotOutput) {
+                        exportFormat = ResultsExporter.Format.valueOf(format.toUpperCase());
+                    }
+                    break;
+                case "--columns":
+                    exportColumns = Arrays.asList(args[++i].split(","));
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--verbose":
+                    verbose = true;
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        ConsoleLogSink logSink = new ConsoleLogSink(System.err, verbose);
+        if (modelName.endsWith(".java")) {
+            modelName = new ModelPluginLoader(ModelPluginLoader.defaultCacheDir(), logSink).load(Paths.get(modelName)).getName();
+        }
+        HeadlessRunner runner = new HeadlessRunner(modelName, scriptFiles, logSink);
+        runner.setSnapshotOutput(snapshotOutput);
+        runner.setExportFormat(exportFormat);
+        runner.setExportColumns(exportColumns);
+        runner.setThreads(threads);
+        runner.runDirectory(dataDir, outputDir);
+        System.exit(logSink.getErrorCount() == 0 ? 0 : 1);
+    }
+}
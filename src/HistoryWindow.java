@@ -1,22 +1,48 @@
 import javax.swing.*;
 import javax.swing.text.*;
 import java.awt.*;
-import java.time.LocalDateTime;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HistoryWindow extends JFrame implements LogSink {
+    private static final int DEFAULT_CAPACITY = Integer.getInteger("savings.log.capacity", 65536);
+    private static final int FLUSH_INTERVAL_MS = 33;
+    private static final int MAX_BATCH = 4096;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
 
-public class HistoryWindow extends JFrame {
     private JTextPane logArea;
     private JScrollPane scrollPane;
-    private final List<LogEntry> logEntries = new ArrayList<>();
+    private final LogRingBuffer<LogEntry> pendingEntries;
+    private final ArrayDeque<LogEntry> logEntries = new ArrayDeque<>();
+    private final int historyLimit;
+    private final AtomicLong droppedEntries = new AtomicLong();
+    private final Map<LogLevel, Style> styles = new EnumMap<>(LogLevel.class);
+    private final StringBuilder batchText = new StringBuilder();
+    private Style defaultStyle;
     private JCheckBox infoCheckBox;
     private JCheckBox warningCheckBox;
     private JCheckBox errorCheckBox;
+    private JLabel droppedLabel;
+    private volatile boolean infoEnabled = true;
+    private volatile boolean warningEnabled = true;
+    private volatile boolean errorEnabled = true;
     private int lineCounter = 1;
+    private int displayedLines;
 
     public HistoryWindow() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public HistoryWindow(int capacity) {
         super("History");
+        pendingEntries = new LogRingBuffer<>(capacity);
+        historyLimit = pendingEntries.capacity();
         setSize(800, 600);
         setLocationRelativeTo(null);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
@@ -26,10 +52,12 @@ public class HistoryWindow extends JFrame {
         infoCheckBox = new JCheckBox("INFO", true);
         warningCheckBox = new JCheckBox("WARNING", true);
         errorCheckBox = new JCheckBox("ERROR", true);
+        droppedLabel = new JLabel();
 
         topPanel.add(infoCheckBox);
         topPanel.add(warningCheckBox);
         topPanel.add(errorCheckBox);
+        topPanel.add(droppedLabel);
 
         infoCheckBox.addItemListener(e -> filterLogs());
         warningCheckBox.addItemListener(e -> filterLogs());
@@ -42,81 +70,145 @@ public class HistoryWindow extends JFrame {
         logArea.setBackground(Color.BLACK);
         logArea.setForeground(Color.WHITE);
         logArea.setFont(new Font("Courier New", Font.PLAIN, 14));
+        createStyles();
 
         scrollPane = new JScrollPane(logArea);
         add(scrollPane, BorderLayout.CENTER);
-    }
 
+        Timer flushTimer = new Timer(FLUSH_INTERVAL_MS, e -> flushPendingEntries());
+        flushTimer.setCoalesce(true);
+        flushTimer.start();
+    }
 
-    public void appendLog(String level, String message) {
-        addLog(new LogEntry(level, message));
+    private void createStyles() {
+        defaultStyle = logArea.addStyle("Style_DEFAULT", null);
+        StyleConstants.setBold(defaultStyle, true);
+        styles.put(LogLevel.INFO, createStyle(LogLevel.INFO, Color.GREEN));
+        styles.put(LogLevel.WARNING, createStyle(LogLevel.WARNING, Color.YELLOW));
+        styles.put(LogLevel.ERROR, createStyle(LogLevel.ERROR, Color.RED));
     }
 
-    private void addLog(LogEntry logEntry) {
-        logEntries.add(logEntry);
-        if (isLevelEnabled(logEntry.level)) {
-            appendToLogArea(logEntry);
-        }
+    private Style createStyle(LogLevel level, Color color) {
+        Style style = logArea.addStyle("Style_" + level, defaultStyle);
+        StyleConstants.setForeground(style, color);
+        return style;
     }
 
-    private boolean isLevelEnabled(String level) {
+    @Override
+    public boolean isEnabled(LogLevel level) {
         switch (level) {
-            case "INFO":
-                return infoCheckBox.isSelected();
-            case "WARNING":
-                return warningCheckBox.isSelected();
-            case "ERROR":
-                return errorCheckBox.isSelected();
+            case INFO:
+                return infoEnabled;
+            case WARNING:
+                return warningEnabled;
+            case ERROR:
+                return errorEnabled;
             default:
                 return true;
         }
     }
+
+    @Override
+    public void log(LogLevel level, String message) {
+        if (!pendingEntries.offer(new LogEntry(level, message))) {
+            droppedEntries.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void showError(String title, String message) {
+        Runnable dialog = () -> JOptionPane.showMessageDialog(null, message, title, JOptionPane.ERROR_MESSAGE);
+        if (SwingUtilities.isEventDispatchThread()) {
+            dialog.run();
+        } else {
+            SwingUtilities.invokeLater(dialog);
+        }
+    }
+
+    public long getDroppedCount() {
+        return droppedEntries.get();
+    }
+
+    private void flushPendingEntries() {
+        LogLevel[] batchLevel = new LogLevel[1];
+        int drained = pendingEntries.drain(entry -> {
+            logEntries.addLast(entry);
+            if (logEntries.size() > historyLimit) {
+                logEntries.removeFirst();
+            }
+            if (isEnabled(entry.level)) {
+                if (batchLevel[0] != null && batchLevel[0] != entry.level) {
+                    insertBatch(batchLevel[0]);
+                }
+                batchLevel[0] = entry.level;
+                appendLine(entry);
+            }
+        }, MAX_BATCH);
+
+        if (batchLevel[0] != null) {
+            insertBatch(batchLevel[0]);
+            logArea.setCaretPosition(logArea.getDocument().getLength());
+        }
+        if (drained > 0 && displayedLines > 2 * historyLimit) {
+            filterLogs();
+        }
+        long dropped = droppedEntries.get();
+        if (dropped > 0) {
+            droppedLabel.setText("Dropped: " + dropped);
+        }
+    }
+
     private void filterLogs() {
+        infoEnabled = infoCheckBox.isSelected();
+        warningEnabled = warningCheckBox.isSelected();
+        errorEnabled = errorCheckBox.isSelected();
         SwingUtilities.invokeLater(() -> {
             logArea.setText("");
             lineCounter = 1;
+            displayedLines = 0;
+            LogLevel batchLevel = null;
             for (LogEntry entry : logEntries) {
-                if (isLevelEnabled(entry.level)) {
-                    appendToLogArea(entry);
+                if (isEnabled(entry.level)) {
+                    if (batchLevel != null && batchLevel != entry.level) {
+                        insertBatch(batchLevel);
+                    }
+                    batchLevel = entry.level;
+                    appendLine(entry);
                 }
             }
+            if (batchLevel != null) {
+                insertBatch(batchLevel);
+            }
+            logArea.setCaretPosition(logArea.getDocument().getLength());
         });
     }
 
-    private void appendToLogArea(LogEntry logEntry) {
+    private void appendLine(LogEntry logEntry) {
+        batchText.append('[').append(lineCounter++).append("] [");
+        TIMESTAMP_FORMAT.formatTo(Instant.ofEpochMilli(logEntry.timestamp), batchText);
+        batchText.append("] [").append(logEntry.level).append("] ").append(logEntry.message).append(System.lineSeparator());
+        displayedLines++;
+    }
+
+    private void insertBatch(LogLevel level) {
         try {
             StyledDocument doc = logArea.getStyledDocument();
-            Style style = logArea.addStyle("Style_" + logEntry.level, null);
-            switch (logEntry.level) {
-                case "INFO":
-                    StyleConstants.setForeground(style, Color.GREEN);
-                    break;
-                case "WARNING":
-                    StyleConstants.setForeground(style, Color.YELLOW);
-                    break;
-                case "ERROR":
-                    StyleConstants.setForeground(style, Color.RED);
-                    break;
-            }
-            StyleConstants.setBold(style, true);
-            DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            String timestamp = logEntry.timestamp.format(dtf);
-            String logText = String.format("[%d] [%s] [%s] %s%n", lineCounter++, timestamp, logEntry.level, logEntry.message);
-            doc.insertString(doc.getLength(), logText, style);
-            logArea.setCaretPosition(doc.getLength());
+            doc.insertString(doc.getLength(), batchText.toString(), styles.getOrDefault(level, defaultStyle));
         } catch (BadLocationException e) {
             e.printStackTrace();
         }
+        batchText.setLength(0);
     }
+
     private static class LogEntry {
-        String level;
-        String message;
-        LocalDateTime timestamp;
+        final LogLevel level;
+        final String message;
+        final long timestamp;
 
-        LogEntry(String level, String message) {
+        LogEntry(LogLevel level, String message) {
             this.level = level;
             this.message = message;
-            this.timestamp = LocalDateTime.now();
+            this.timestamp = System.currentTimeMillis();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,164 @@
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+final class JavaSourceCompiler {
+    private static final String SOURCE_SUFFIX = ".java";
+    private static final String CLASS_SUFFIX = ".class";
+
+    private JavaSourceCompiler() {
+    }
+
+    static String cacheKey(String code) {
+        return ScriptCache.hash("java " + Runtime.version().feature() + "\n" + code);
+    }
+
+    static Map<String, byte[]> compile(String displayName, String className, String code) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("No Java compiler available, runtime compilation requires a JDK.");
+        }
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Map<String, ByteArrayOutputStream> outputs = new HashMap<>();
+        StandardJavaFileManager standardManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8);
+        JavaFileObject unit = new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + SOURCE_SUFFIX),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+        List<String> options = new ArrayList<>(List.of("-proc:none", "-classpath", System.getProperty("java.class.path")));
+        if (ModuleLayer.boot().findModule(ModelKernels.VECTOR_MODULE).isPresent()) {
+            options.addAll(List.of("--add-modules", ModelKernels.VECTOR_MODULE));
+        }
+
+        boolean compiled;
+        try (JavaFileManager fileManager = new ForwardingJavaFileManager<>(standardManager) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location, String name, JavaFileObject.Kind kind, FileObject sibling) {
+                return new SimpleJavaFileObject(URI.create("mem:///" + name.replace('.', '/') + kind.extension), kind) {
+                    @Override
+                    public OutputStream openOutputStream() {
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        outputs.put(name, out);
+                        return out;
+                    }
+                };
+            }
+        }) {
+            compiled = compiler.getTask(null, fileManager, diagnostics, options, null, List.of(unit)).call();
+        }
+        if (!compiled) {
+            StringBuilder errors = new StringBuilder("Failed to compile " + displayName + ":");
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                    errors.append("\n  line ").append(diagnostic.getLineNumber()).append(": ").append(diagnostic.getMessage(Locale.ROOT));
+                }
+            }
+            throw new IllegalArgumentException(errors.toString());
+        }
+
+        Map<String, byte[]> classes = new HashMap<>();
+        for (Map.Entry<String, ByteArrayOutputStream> entry : outputs.entrySet()) {
+            classes.put(entry.getKey(), entry.getValue().toByteArray());
+        }
+        return classes;
+    }
+
+    static Class<?> define(Map<String, byte[]> classes, String className) throws ClassNotFoundException {
+        return new IsolatedClassLoader(JavaSourceCompiler.class.getClassLoader(), classes).loadClass(className);
+    }
+
+    static Map<String, byte[]> loadFromDisk(Path cacheDir, String key, LogSink logSink) {
+        if (cacheDir == null) {
+            return null;
+        }
+        Path dir = cacheDir.resolve(key);
+        if (!Files.isDirectory(dir)) {
+            return null;
+        }
+        Map<String, byte[]> classes = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + CLASS_SUFFIX)) {
+            for (Path file : stream) {
+                String fileName = file.getFileName().toString();
+                classes.put(fileName.substring(0, fileName.length() - CLASS_SUFFIX.length()), Files.readAllBytes(file));
+            }
+        } catch (IOException e) {
+            logSink.log(LogLevel.WARNING, "Failed to read cached bytecode from {} - {}", dir, e.getMessage());
+            return null;
+        }
+        return classes.isEmpty() ? null : classes;
+    }
+
+    static void saveToDisk(Path cacheDir, String key, Map<String, byte[]> classes, LogSink logSink) {
+        if (cacheDir == null) {
+            return;
+        }
+        Path dir = cacheDir.resolve(key);
+        try {
+            Path tmp = Files.createTempDirectory(Files.createDirectories(cacheDir), key + ".tmp");
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                Files.write(tmp.resolve(entry.getKey() + CLASS_SUFFIX), entry.getValue());
+            }
+            Files.move(tmp, dir);
+        } catch (IOException e) {
+            logSink.log(LogLevel.WARNING, "Failed to cache bytecode in {} - {}", dir, e.getMessage());
+        }
+    }
+
+    private static class IsolatedClassLoader extends ClassLoader {
+        private final Map<String, byte[]> classes;
+
+        IsolatedClassLoader(ClassLoader parent, Map<String, byte[]> classes) {
+            super(parent);
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> type = findLoadedClass(name);
+                if (type == null && classes.containsKey(name)) {
+                    type = findClass(name);
+                }
+                if (type == null) {
+                    return super.loadClass(name, resolve);
+                }
+                if (resolve) {
+                    resolveClass(type);
+                }
+                return type;
+            }
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+public final class LogFormat {
+    private static final int PREVIEW_HEAD = 5;
+    private static final int PREVIEW_TAIL = 2;
+    private static final String PLACEHOLDER = "{}";
+
+    private LogFormat() {
+    }
+
+    public static String format(String pattern, Object... args) {
+        StringBuilder sb = new StringBuilder(pattern.length() + 32);
+        int from = 0;
+        for (Object arg : args) {
+            int at = pattern.indexOf(PLACEHOLDER, from);
+            if (at < 0) {
+                break;
+            }
+            sb.append(pattern, from, at);
+            appendValue(sb, arg);
+            from = at + PLACEHOLDER.length();
+        }
+        return sb.append(pattern, from, pattern.length()).toString();
+    }
+
+    public static String preview(double[] values) {
+        StringBuilder sb = new StringBuilder();
+        appendValue(sb, values);
+        return sb.toString();
+    }
+
+    public static String preview(Series series) {
+        StringBuilder sb = new StringBuilder();
+        appendValue(sb, series);
+        return sb.toString();
+    }
+
+    private static void appendValue(StringBuilder sb, Object value) {
+        if (value instanceof double[]) {
+            double[] values = (double[]) value;
+            appendValues(sb, values, values.length, values.length);
+        } else if (value instanceof Series) {
+            Series series = (Series) value;
+            if (series.getPhysical() != null) {
+                appendValues(sb, series.getPhysical(), series.getPhysicalLength(), series.getLength());
+            } else {
+                appendEncoded(sb, series);
+            }
+        } else {
+            sb.append(value);
+        }
+    }
+
+    private static void appendEncoded(StringBuilder sb, Series series) {
+        int length = series.getLength();
+        sb.append('[');
+        for (int i = 0; i < Math.min(PREVIEW_HEAD, length); i++) {
+            sb.append(i == 0 ? "" : ", ").append(series.get(i));
+        }
+        if (length > PREVIEW_HEAD) {
+            sb.append(", ...");
+            for (int i = Math.max(PREVIEW_HEAD, length - PREVIEW_TAIL); i < length; i++) {
+                sb.append(", ").append(series.get(i));
+            }
+        }
+        sb.append("] (").append(length).append(" values, ").append(series.getStoredCount())
+                .append(series.getEncoding() == Series.Encoding.RUNS ? " runs)" : " exceptions)");
+    }
+
+    private static void appendValues(StringBuilder sb, double[] values, int count, int length) {
+        sb.append('[');
+        if (count <= PREVIEW_HEAD + PREVIEW_TAIL) {
+            for (int i = 0; i < count; i++) {
+                sb.append(i == 0 ? "" : ", ").append(values[i]);
+            }
+            sb.append(']');
+        } else {
+            for (int i = 0; i < PREVIEW_HEAD; i++) {
+                sb.append(i == 0 ? "" : ", ").append(values[i]);
+            }
+            sb.append(", ...");
+            for (int i = count - PREVIEW_TAIL; i < count; i++) {
+                sb.append(", ").append(values[i]);
+            }
+            sb.append(']');
+        }
+        if (count < length) {
+            sb.append(" (").append(count).append(" of ").append(length).append(" values, last repeated)");
+        } else if (count > PREVIEW_HEAD + PREVIEW_TAIL) {
+            sb.append(" (").append(count).append(" values)");
+        }
+    }
+}
@@ -0,0 +1,5 @@
+public enum LogLevel {
+    INFO,
+    WARNING,
+    ERROR
+}
@@ -0,0 +1,47 @@
+import java.util.function.Supplier;
+
+public interface LogSink {
+    LogSink NONE = new LogSink() {
+        @Override
+        public void log(LogLevel level, String message) {
+        }
+
+        @Override
+        public boolean isEnabled(LogLevel level) {
+            return false;
+        }
+    };
+
+    void log(LogLevel level, String message);
+
+    default boolean isEnabled(LogLevel level) {
+        return true;
+    }
+
+    default void log(LogLevel level, Supplier<String> message) {
+        if (isEnabled(level)) {
+            log(level, message.get());
+        }
+    }
+
+    default void log(LogLevel level, String pattern, Object arg) {
+        if (isEnabled(level)) {
+            log(level, LogFormat.format(pattern, arg));
+        }
+    }
+
+    default void log(LogLevel level, String pattern, Object arg1, Object arg2) {
+        if (isEnabled(level)) {
+            log(level, LogFormat.format(pattern, arg1, arg2));
+        }
+    }
+
+    default void log(LogLevel level, String pattern, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(level)) {
+            log(level, LogFormat.format(pattern, arg1, arg2, arg3));
+        }
+    }
+
+    default void showError(String title, String message) {
+    }
+}
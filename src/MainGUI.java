@@ -1,20 +1,27 @@
 import com.formdev.flatlaf.FlatDarculaLaf;
 import javax.swing.table.DefaultTableCellRenderer;
-import java.text.DecimalFormat;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.io.File;
-import javax.swing.table.DefaultTableModel;
+import java.util.ArrayList;
+import java.util.List;
 
 
 public class MainGUI extends JFrame {
     private HistoryWindow historyWindow;
+    private PerformanceWindow performanceWindow;
+    private ModelPluginLoader pluginLoader;
     private ChartManager chartManager;
     private Controller controller;
     private JPanel mainPanel;
     private JTable resultsTable;
+    private final ResultsTableModel resultsModel = new ResultsTableModel();
     private JScrollPane tableScrollPane;
+    private ExecutionService executionService;
+    private JProgressBar progressBar;
+    private JLabel statusLabel;
+    private JButton cancelButton;
 
     public MainGUI() {
         super("Savings Simulator v1.0");
@@ -23,7 +30,9 @@ public class MainGUI extends JFrame {
         setupMainWindow();
     }
     private void selectModel() {
-        String[] availableModels = {"ModelSavings", "Model2", "Model3", "Model4"};
+        List<String> models = new ArrayList<>(List.of("ModelSavings", "Model2", "Model3", "Model4"));
+        models.addAll(ModelDefinition.getPluginNames());
+        String[] availableModels = models.toArray(new String[0]);
 
         String chosen = (String)JOptionPane.showInputDialog(
                 this,
@@ -36,12 +45,11 @@ public class MainGUI extends JFrame {
         );
 
 
-        if (chosen != null) {
+        if (chosen != null && ensureIdle()) {
             controller.setModel(chosen);
-            resultsTable.setModel(new DefaultTableModel());
             updateResultsTable(controller.getModelVariables(), false);
 
-            historyWindow.appendLog("INFO", "Model changed to: " + chosen);
+            historyWindow.log(LogLevel.INFO, "Model changed to: {}", chosen);
             JOptionPane.showMessageDialog(
                     this,
                     "Model changed to: " + chosen,
@@ -57,7 +65,7 @@ public class MainGUI extends JFrame {
                 e -> onMainOptionClick(e),
                 e -> onScriptOptionClick(e),
                 e -> onChartOptionClick(e),
-                e -> openHistoryWindow(),
+                e -> onLogsOptionClick(e),
                 e -> showSettings());
 
         JPanel navigationWrapper = new JPanel(new BorderLayout());
@@ -67,15 +75,101 @@ public class MainGUI extends JFrame {
 
         mainPanel.add(navigationWrapper, BorderLayout.WEST);
 
-        resultsTable = new JTable();
+        resultsModel.setEditListener(this::onValueEdited);
+        resultsTable = new JTable(resultsModel);
+        formatResultsTable();
         tableScrollPane = new JScrollPane(resultsTable);
         mainPanel.add(tableScrollPane, BorderLayout.CENTER);
+        mainPanel.add(buildStatusPanel(), BorderLayout.SOUTH);
         return mainPanel;
     }
 
+    private JPanel buildStatusPanel() {
+        JPanel statusPanel = new JPanel(new BorderLayout(10, 0));
+        statusPanel.setBorder(BorderFactory.createEmptyBorder(5, 15, 10, 15));
+        statusLabel = new JLabel("Ready");
+        progressBar = new JProgressBar(0, 1000);
+        cancelButton = new JButton("Cancel");
+        cancelButton.setEnabled(false);
+        cancelButton.addActionListener(e -> {
+            if (executionService.cancelCurrent()) {
+                statusLabel.setText("Cancelling...");
+            }
+        });
+
+        statusPanel.add(statusLabel, BorderLayout.WEST);
+        statusPanel.add(progressBar, BorderLayout.CENTER);
+        statusPanel.add(cancelButton, BorderLayout.EAST);
+        return statusPanel;
+    }
+
+    private void onJobProgress(String jobName, String stage, double fraction) {
+        statusLabel.setText(jobName + ": " + stage);
+        progressBar.setIndeterminate(fraction < 0);
+        if (fraction >= 0) {
+            progressBar.setValue((int) (fraction * progressBar.getMaximum()));
+        }
+        cancelButton.setEnabled(true);
+    }
+
+    private void onJobFinished(String jobName) {
+        if (!executionService.isBusy()) {
+            statusLabel.setText("Ready");
+            progressBar.setIndeterminate(false);
+            progressBar.setValue(0);
+            cancelButton.setEnabled(false);
+        }
+    }
+
+    private boolean ensureIdle() {
+        if (!executionService.isBusy()) {
+            return true;
+        }
+        JOptionPane.showMessageDialog(this, "A job is still running. Wait for it to finish or cancel it first.",
+                "Busy", JOptionPane.WARNING_MESSAGE);
+        return false;
+    }
+
+    private void publishResults(Controller.ModelVariables modelVar) {
+        updateResultsTable(modelVar, false);
+        chartManager.updateCharts(modelVar);
+    }
+
+    private void onValueEdited(String varName, int row, double value) {
+        executionService.submit("Edit " + varName, progress -> {
+            progress.update("Recomputing from period " + (row + 1), -1);
+            controller.updateVariable(varName, row, new double[]{value});
+            controller.runModel();
+            return controller.getModelVariables();
+        }, this::publishResults);
+    }
+
+    public void submitScript(String jobName, String scriptCode, Runnable onSuccess) {
+        executionService.submit(jobName, progress -> {
+            progress.update("Executing script", -1);
+            controller.runScript(scriptCode);
+            return controller.getModelVariables();
+        }, modelVar -> {
+            publishResults(modelVar);
+            onSuccess.run();
+        });
+    }
+
     private void initializeMainComponents() {
         historyWindow = new HistoryWindow();
+        executionService = new ExecutionService(historyWindow, new ExecutionService.Listener() {
+            @Override
+            public void onProgress(String jobName, String stage, double fraction) {
+                onJobProgress(jobName, stage, fraction);
+            }
+
+            @Override
+            public void onFinished(String jobName) {
+                onJobFinished(jobName);
+            }
+        });
         controller = new Controller("ModelSavings", historyWindow);
+        controller.setInteractive(true);
         chartManager = new ChartManager(historyWindow);
         mainPanel = buildMainScreenPanel();
         add(mainPanel);
@@ -93,7 +187,7 @@ public class MainGUI extends JFrame {
             UIManager.setLookAndFeel(new FlatDarculaLaf());
         } catch (Exception e) {
             e.printStackTrace();
-            historyWindow.appendLog("ERROR", "Failed to set Look and Feel: " + e.getMessage());
+            historyWindow.log(LogLevel.ERROR, "Failed to set Look and Feel: {}", e.getMessage());
         }
     }
 
@@ -103,12 +197,18 @@ public class MainGUI extends JFrame {
             case "Select model":
                 selectModel();
                 break;
+            case "Load plugin":
+                loadPlugin();
+                break;
             case "Load data":
                 loadData();
                 break;
             case "Run model":
                 runModel();
                 break;
+            case "Monte Carlo":
+                runMonteCarlo();
+                break;
             case "Get results":
                 getResults();
                 break;
@@ -120,6 +220,9 @@ public class MainGUI extends JFrame {
         String command = ((JButton)e.getSource()).getText();
         switch (command) {
             case "Write script":
+                if (!ensureIdle()) {
+                    break;
+                }
                 new ScriptEditorWindow(controller, this,historyWindow);
                 break;
             case "Open script":
@@ -130,6 +233,9 @@ public class MainGUI extends JFrame {
 
     private void onChartOptionClick(ActionEvent e) {
         String command = ((JButton)e.getSource()).getText();
+        if (!ensureIdle()) {
+            return;
+        }
         Controller.ModelVariables modelVar = controller.getModelVariables();
         switch (command) {
             case "Linear chart":
@@ -141,30 +247,132 @@ public class MainGUI extends JFrame {
         }
     }
 
+    private void loadPlugin() {
+        JFileChooser chooser = new JFileChooser(new File("plugins"));
+        chooser.setDialogTitle("Load Model Plugin (.java)");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION || !ensureIdle()) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+        if (pluginLoader == null) {
+            pluginLoader = new ModelPluginLoader(ModelPluginLoader.defaultCacheDir(), historyWindow);
+        }
+        executionService.submit("Load plugin " + file.getName(), progress -> {
+            progress.update("Compiling " + file.getName(), -1);
+            ModelDefinition definition = pluginLoader.load(file.toPath());
+            pluginLoader.watch(file.toPath().toAbsolutePath().getParent(),
+                    reloaded -> SwingUtilities.invokeLater(() -> onPluginReloaded(reloaded)));
+            controller.setModel(definition.getName());
+            return controller.getModelVariables();
+        }, modelVar -> {
+            updateResultsTable(modelVar, false);
+            JOptionPane.showMessageDialog(this, "Model plugin loaded: " + file.getName(), "Info", JOptionPane.INFORMATION_MESSAGE);
+        });
+    }
+
+    private void onPluginReloaded(ModelDefinition definition) {
+        if (!definition.getName().equals(controller.getDefinition().getName())) {
+            return;
+        }
+        executionService.submit("Reload " + definition.getName(), progress -> {
+            progress.update("Recomputing with reloaded model", -1);
+            controller.reloadModel(definition).runModel();
+            return controller.getModelVariables();
+        }, this::publishResults);
+    }
+
     private void loadData() {
         JFileChooser chooser = new JFileChooser();
         if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
             File file = chooser.getSelectedFile();
-            resultsTable.setModel(new DefaultTableModel());
-            controller.readDataFrom(file.getAbsolutePath());
-            historyWindow.appendLog("INFO", "Data loaded successfully from: " + file.getName());
-            JOptionPane.showMessageDialog(this, "Data loaded successfully from: " + file.getName());
+            if (resultsModel.clear()) {
+                applyCellRenderers();
+            }
+            executionService.submit("Load data", progress -> {
+                if (file.getName().endsWith(SnapshotFile.EXTENSION)) {
+                    progress.update("Reading " + file.getName(), -1);
+                    controller.readSnapshotFrom(file.getAbsolutePath());
+                } else {
+                    controller.readDataFrom(file.getAbsolutePath(), fraction -> progress.update("Reading " + file.getName(), fraction));
+                }
+                return file;
+            }, loaded -> {
+                historyWindow.log(LogLevel.INFO, "Data loaded successfully from: {}", loaded.getName());
+                JOptionPane.showMessageDialog(this, "Data loaded successfully from: " + loaded.getName());
+            });
         }
     }
 
     private void runModel() {
-        controller.runModel();
-        updateResultsTable(controller.getModelVariables(), false);
+        executionService.submit("Run model", progress -> {
+            progress.update("Running model", -1);
+            controller.runModel();
+            return controller.getModelVariables();
+        }, this::publishResults);
+    }
+
+    private void runMonteCarlo() {
+        String[] priceModels = {"GBM", "BOOTSTRAP"};
+        String priceModel = (String) JOptionPane.showInputDialog(this, "ETH price model:", "Monte Carlo",
+                JOptionPane.PLAIN_MESSAGE, null, priceModels, priceModels[0]);
+        if (priceModel == null) {
+            return;
+        }
+        String paths = JOptionPane.showInputDialog(this, "Number of simulated paths:", "100000");
+        if (paths == null) {
+            return;
+        }
+
+        MonteCarloEngine.Config config = new MonteCarloEngine.Config();
+        config.priceModel = MonteCarloEngine.PriceModel.valueOf(priceModel);
+        try {
+            config.paths = Long.parseLong(paths.trim());
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid number of paths: " + paths, "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        executionService.submit("Monte Carlo", progress -> {
+            progress.update("Simulating " + config.paths + " paths", -1);
+            controller.runMonteCarlo(config);
+            return controller.getModelVariables();
+        }, this::publishResults);
     }
 
     private void getResults() {
+        if (!ensureIdle()) {
+            return;
+        }
         String tsv = controller.getResultsAsTsv();
         JTextArea textArea = createReadOnlyTextArea(tsv);
         JScrollPane scroll = new JScrollPane(textArea);
         scroll.setPreferredSize(new Dimension(600, 300));
 
-        historyWindow.appendLog("INFO", "Displayed combined results as TSV.");
-        JOptionPane.showMessageDialog(this, scroll, "Combined Results TSV", JOptionPane.INFORMATION_MESSAGE);
+        historyWindow.log(LogLevel.INFO, "Displayed combined results as TSV.");
+        Object[] options = {"Save as TSV", "Save as CSV", "Close"};
+        int choice = JOptionPane.showOptionDialog(this, scroll, "Combined Results TSV", JOptionPane.DEFAULT_OPTION,
+                JOptionPane.INFORMATION_MESSAGE, null, options, options[2]);
+        if (choice == 0) {
+            exportResults(ResultsExporter.Format.TSV);
+        } else if (choice == 1) {
+            exportResults(ResultsExporter.Format.CSV);
+        }
+    }
+
+    private void exportResults(ResultsExporter.Format format) {
+        String extension = format.name().toLowerCase();
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export Results as " + format);
+        chooser.setSelectedFile(new File("results." + extension));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+        executionService.submit("Export " + file.getName(), progress -> {
+            progress.update("Writing " + extension.toUpperCase(), -1);
+            controller.exportResults(file.getAbsolutePath(), format, null);
+            return file;
+        }, exported -> JOptionPane.showMessageDialog(this, "Results exported to: " + exported.getName(), "Success",
+                JOptionPane.INFORMATION_MESSAGE));
     }
 
     private void executeScriptFromFile() {
@@ -173,21 +381,32 @@ public class MainGUI extends JFrame {
         int result = chooser.showOpenDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             File file = chooser.getSelectedFile();
-            try {
+            executionService.submit("Script " + file.getName(), progress -> {
+                progress.update("Executing script", -1);
                 controller.runScriptFromFile(file.getAbsolutePath());
-                historyWindow.appendLog("INFO", "Script executed successfully from file: " + file.getName());
+                return controller.getModelVariables();
+            }, modelVar -> {
+                publishResults(modelVar);
+                historyWindow.log(LogLevel.INFO, "Script executed successfully from file: {}", file.getName());
                 JOptionPane.showMessageDialog(this, "Script executed successfully from: " + file.getName(), "Success", JOptionPane.INFORMATION_MESSAGE);
-
-                refreshResultsTable();
-            } catch (Exception ex) {
-                historyWindow.appendLog("ERROR", "Failed to execute script: " + ex.getMessage());
-                JOptionPane.showMessageDialog(this, "Failed to execute script: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         }
     }
 
     private void showSettings() {
-        JOptionPane.showMessageDialog(this, "Settings clicked. No options for now:) ");
+        JCheckBox staticScripts = new JCheckBox("Compile scripts statically (typed, falls back to dynamic)", controller.isStaticScripts());
+        JCheckBox lazyExpressions = new JCheckBox("Evaluate expressions lazily (fused when results are read)", controller.isLazyExpressions());
+        int result = JOptionPane.showConfirmDialog(this, new Object[]{staticScripts, lazyExpressions}, "Settings",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) {
+            return;
+        }
+        if (staticScripts.isSelected() != controller.isStaticScripts()) {
+            controller.setStaticScripts(staticScripts.isSelected());
+        }
+        if (lazyExpressions.isSelected() != controller.isLazyExpressions()) {
+            controller.setLazyExpressions(lazyExpressions.isSelected());
+        }
     }
 
     private JTextArea createReadOnlyTextArea(String text) {
@@ -198,82 +417,45 @@ public class MainGUI extends JFrame {
         return textArea;
     }
 
-    private void openHistoryWindow() {
-        if (historyWindow != null) {
-            historyWindow.setVisible(true);
-            historyWindow.toFront();
+    private void onLogsOptionClick(ActionEvent e) {
+        String command = ((JButton)e.getSource()).getText();
+        switch (command) {
+            case "History":
+                openHistoryWindow();
+                break;
+            case "Performance":
+                openPerformanceWindow();
+                break;
         }
     }
 
-    private void updateResultsTable(Controller.ModelVariables modelVar, boolean isScript) {
-        historyWindow.appendLog("INFO", "Generating TSV with BoundVariables: " + modelVar.names);
-        String[] columnNames = generateColumnNames(modelVar);
-        Object[][] tableData = generateTableData(modelVar);
-
-        resultsTable.setModel(new DefaultTableModel(tableData, columnNames));
-        formatResultsTable();
-        historyWindow.appendLog("INFO", "Table has been updated.");
-    }
-
-    public void refreshResultsTable() {
-        updateResultsTable(controller.getModelVariables(), false);
-    }
-
-    private String[] generateColumnNames(Controller.ModelVariables modelVar) {
-        if (modelVar == null || modelVar.names.isEmpty()) {
-            return new String[]{"LATA"};
-        }
-        String[] columnNames = new String[1 + modelVar.names.size()];
-        columnNames[0] = "LATA";
-        for (int i = 0; i < modelVar.names.size(); i++) {
-            String varName = modelVar.names.get(i);
-            columnNames[i + 1] = varName;
+    private void openPerformanceWindow() {
+        if (performanceWindow == null) {
+            performanceWindow = new PerformanceWindow(Metrics.getDefault(), historyWindow);
         }
-
-        return columnNames;
+        performanceWindow.setVisible(true);
+        performanceWindow.toFront();
     }
 
-
-    private Object[][] generateTableData(Controller.ModelVariables modelVar) {
-        int rowCount = modelVar.periodCount;
-        int colCount = modelVar.names.size();
-        Object[][] tableData = new Object[rowCount][colCount + 1];
-
-        for (int r = 0; r < rowCount; r++) {
-            tableData[r][0] = modelVar.periodLabels.get(r);
-        }
-
-        DecimalFormat df = new DecimalFormat("#,##0");
-
-        for (int varIndex = 0; varIndex < modelVar.names.size(); varIndex++) {
-            String varName = modelVar.names.get(varIndex);
-            Object val = modelVar.values.get(varIndex);
-            for (int r = 0; r < rowCount; r++) {
-                tableData[r][varIndex + 1] = formatTableValue(varName, val, r);
-            }
+    private void openHistoryWindow() {
+        if (historyWindow != null) {
+            historyWindow.setVisible(true);
+            historyWindow.toFront();
         }
-
-        return tableData;
     }
 
-    private Object formatTableValue(String varName, Object val, int rowIndex) {
-        double[] arr = (double[]) val;
-        double value = arr[Math.min(rowIndex, arr.length - 1)];
-        if (varName.equals("savingFraction")) {
-            return formatDouble(value * 100) + "%";
+    private void updateResultsTable(Controller.ModelVariables modelVar, boolean isScript) {
+        historyWindow.log(LogLevel.INFO, "Updating results table with BoundVariables: {}", modelVar.names);
+        if (resultsModel.setVariables(modelVar)) {
+            applyCellRenderers();
         }
-
-        return formatDouble(value);
+        historyWindow.log(LogLevel.INFO, "Table has been updated.");
     }
 
-
-
-    private String formatDouble(double value) {
-        DecimalFormat df = new DecimalFormat("#,##0.00");
-        return df.format(value);
+    public void refreshResultsTable() {
+        updateResultsTable(controller.getModelVariables(), false);
     }
 
-
     private void formatResultsTable() {
         resultsTable.getTableHeader().setFont(new Font("Courier New", Font.BOLD, 16));
         resultsTable.setFont(new Font("Arial", Font.PLAIN, 14));
@@ -282,14 +464,15 @@ public class MainGUI extends JFrame {
         resultsTable.setGridColor(Color.GRAY);
         resultsTable.setSelectionBackground(new Color(255, 254, 254, 87));
         resultsTable.setSelectionForeground(Color.WHITE);
+        applyCellRenderers();
+    }
 
+    private void applyCellRenderers() {
         DefaultTableCellRenderer rightRenderer = new DefaultTableCellRenderer();
         rightRenderer.setHorizontalAlignment(SwingConstants.RIGHT);
         for (int i = 1; i < resultsTable.getColumnCount(); i++) {
             resultsTable.getColumnModel().getColumn(i).setCellRenderer(rightRenderer);
         }
-
-        historyWindow.appendLog("INFO", "Table has been updated.");
     }
 
     public static void main(String[] args) {
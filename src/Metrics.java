@@ -0,0 +1,368 @@
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class Metrics {
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+    private static final Metrics DEFAULT = createDefault();
+
+    private final String jmxDomain;
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+    private final Map<String, LongAdder> counters = new LinkedHashMap<>();
+    private ScheduledExecutorService dumpExecutor;
+
+    public Metrics(String jmxDomain) {
+        this.jmxDomain = jmxDomain;
+        if (jmxDomain != null) {
+            register(jmxDomain + ":type=Metrics", new RegistryView(), MetricsMXBean.class);
+        }
+    }
+
+    public static Metrics getDefault() {
+        return DEFAULT;
+    }
+
+    public static boolean isAllocationTracked() {
+        return THREADS != null;
+    }
+
+    public synchronized Stage stage(String name) {
+        Stage stage = stages.get(name);
+        if (stage == null) {
+            stage = new Stage(name);
+            stages.put(name, stage);
+            if (jmxDomain != null) {
+                register(jmxDomain + ":type=Stage,name=" + name, stage, StageMXBean.class);
+            }
+        }
+        return stage;
+    }
+
+    public synchronized LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    public synchronized List<Stage> getStages() {
+        return new ArrayList<>(stages.values());
+    }
+
+    public synchronized Map<String, Long> getCounters() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().sum());
+        }
+        return values;
+    }
+
+    public synchronized void reset() {
+        for (Stage stage : stages.values()) {
+            stage.reset();
+        }
+        for (LongAdder counter : counters.values()) {
+            counter.reset();
+        }
+    }
+
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "%-20s %8s %6s %10s %10s %10s %10s %10s %14s%n",
+                "stage", "count", "fail", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms", "alloc/call"));
+        for (Stage stage : getStages()) {
+            text.append(String.format(Locale.ROOT, "%-20s %8d %6d %10.3f %10.3f %10.3f %10.3f %10.3f %14d%n",
+                    stage.getName(), stage.getCount(), stage.getFailures(), stage.getMeanMillis(), stage.getP50Millis(),
+                    stage.getP90Millis(), stage.getP99Millis(), stage.getMaxMillis(), stage.getAllocatedBytesPerCall()));
+        }
+        Map<String, Long> values = getCounters();
+        if (!values.isEmpty()) {
+            text.append(String.format("%n%-32s %12s%n", "counter", "value"));
+            for (Map.Entry<String, Long> entry : values.entrySet()) {
+                text.append(String.format(Locale.ROOT, "%-32s %12d%n", entry.getKey(), entry.getValue()));
+            }
+        }
+        return text.toString();
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"timestamp\":\"").append(Instant.now()).append("\",\"stages\":{");
+        String separator = "";
+        for (Stage stage : getStages()) {
+            json.append(separator).append('"').append(escape(stage.getName())).append("\":")
+                    .append(String.format(Locale.ROOT,
+                            "{\"count\":%d,\"failures\":%d,\"meanMs\":%.3f,\"p50Ms\":%.3f,\"p90Ms\":%.3f,\"p99Ms\":%.3f,"
+                                    + "\"maxMs\":%.3f,\"totalMs\":%.3f,\"allocatedBytes\":%d}",
+                            stage.getCount(), stage.getFailures(), stage.getMeanMillis(), stage.getP50Millis(),
+                            stage.getP90Millis(), stage.getP99Millis(), stage.getMaxMillis(), stage.getTotalMillis(),
+                            stage.getAllocatedBytes()));
+            separator = ",";
+        }
+        json.append("},\"counters\":{");
+        separator = "";
+        for (Map.Entry<String, Long> entry : getCounters().entrySet()) {
+            json.append(separator).append('"').append(escape(entry.getKey())).append("\":").append(entry.getValue());
+            separator = ",";
+        }
+        return json.append("}}").toString();
+    }
+
+    public void dumpTo(Path file) throws IOException {
+        String content = file.toString().endsWith(".json") ? toJson() + System.lineSeparator() : toText();
+        Path parent = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(temp, content, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public synchronized void startDump(Path file, long intervalSeconds) {
+        if (dumpExecutor != null) {
+            dumpExecutor.shutdownNow();
+        }
+        dumpExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumpExecutor.scheduleWithFixedDelay(() -> dumpQuietly(file), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private void dumpQuietly(Path file) {
+        try {
+            dumpTo(file);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to write metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static Metrics createDefault() {
+        Metrics metrics = new Metrics(Boolean.parseBoolean(System.getProperty("savings.metrics.jmx", "true")) ? "savings" : null);
+        String dump = System.getProperty("savings.metrics.dump");
+        if (dump != null) {
+            Path file = Paths.get(dump);
+            metrics.startDump(file, Long.getLong("savings.metrics.dumpInterval", 10));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> metrics.dumpQuietly(file), "metrics-final-dump"));
+        }
+        return metrics;
+    }
+
+    private static void register(String objectName, Object bean, Class<?> type) {
+        try {
+            @SuppressWarnings("unchecked")
+            StandardMBean mbean = new StandardMBean(bean, (Class<Object>) type, true);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, new ObjectName(objectName));
+        } catch (JMException | RuntimeException e) {
+            System.err.println("Failed to register " + objectName + " with JMX: " + e.getMessage());
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+        if (!allocation.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        if (!allocation.isThreadAllocatedMemoryEnabled()) {
+            allocation.setThreadAllocatedMemoryEnabled(true);
+        }
+        return allocation;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    public interface MetricsMXBean {
+        Map<String, Long> getCounters();
+
+        String getText();
+
+        String getJson();
+
+        void reset();
+    }
+
+    public interface StageMXBean {
+        String getName();
+
+        long getCount();
+
+        long getFailures();
+
+        double getMeanMillis();
+
+        double getP50Millis();
+
+        double getP90Millis();
+
+        double getP99Millis();
+
+        double getMaxMillis();
+
+        double getTotalMillis();
+
+        long getAllocatedBytes();
+
+        long getAllocatedBytesPerCall();
+
+        void reset();
+    }
+
+    public static final class Stage implements StageMXBean {
+        private final String name;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder allocated = new LongAdder();
+
+        private Stage(String name) {
+            this.name = name;
+        }
+
+        public Sample start() {
+            return new Sample(this, allocatedBytes(), System.nanoTime());
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        @Override
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return latency.getMean() / 1e6;
+        }
+
+        @Override
+        public double getP50Millis() {
+            return latency.getValueAtPercentile(50) / 1e6;
+        }
+
+        @Override
+        public double getP90Millis() {
+            return latency.getValueAtPercentile(90) / 1e6;
+        }
+
+        @Override
+        public double getP99Millis() {
+            return latency.getValueAtPercentile(99) / 1e6;
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return latency.getMax() / 1e6;
+        }
+
+        @Override
+        public double getTotalMillis() {
+            return latency.getTotal() / 1e6;
+        }
+
+        @Override
+        public long getAllocatedBytes() {
+            return allocated.sum();
+        }
+
+        @Override
+        public long getAllocatedBytesPerCall() {
+            long count = latency.getCount();
+            return count == 0 ? 0 : allocated.sum() / count;
+        }
+
+        @Override
+        public void reset() {
+            latency.reset();
+            failures.reset();
+            allocated.reset();
+        }
+    }
+
+    public static final class Sample implements AutoCloseable {
+        private final Stage stage;
+        private final long startBytes;
+        private final long startNanos;
+        private boolean failed;
+        private boolean stopped;
+
+        private Sample(Stage stage, long startBytes, long startNanos) {
+            this.stage = stage;
+            this.startBytes = startBytes;
+            this.startNanos = startNanos;
+        }
+
+        public void fail() {
+            failed = true;
+        }
+
+        @Override
+        public void close() {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            long elapsed = System.nanoTime() - startNanos;
+            stage.allocated.add(allocatedBytes() - startBytes);
+            stage.latency.record(elapsed);
+            if (failed) {
+                stage.failures.increment();
+            }
+        }
+    }
+
+    private final class RegistryView implements MetricsMXBean {
+        @Override
+        public Map<String, Long> getCounters() {
+            return Metrics.this.getCounters();
+        }
+
+        @Override
+        public String getText() {
+            return toText();
+        }
+
+        @Override
+        public String getJson() {
+            return toJson();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.this.reset();
+        }
+    }
+}
@@ -1,13 +1,15 @@
 public class Model2 {
+    private static final ModelKernels KERNELS = ModelKernels.DEFAULT;
+
     @Bind private int LL;
-    @Bind private double[] capital;
-    @Bind private double[] growthRate;
-    @Bind private double[] result;
+    @Bind private Series capital;
+    @Bind private Series growthRate;
+    @Bind(output = true) private double[] result;
 
-    private HistoryWindow historyWindow;
+    private LogSink logSink;
 
-    public Model2(HistoryWindow historyWindow) {
-        this.historyWindow = historyWindow;
+    public Model2(LogSink logSink) {
+        this.logSink = logSink;
     }
 
     public Model2() {
@@ -15,8 +17,19 @@ public class Model2 {
 
     public void run() {
         result = new double[LL];
-        for (int t = 0; t < LL; t++) {
-            result[t] = capital[t] * growthRate[t];
+        runFrom(0);
+    }
+
+    public double[] runChunk(double[] carry) {
+        runFrom(0);
+        return carry;
+    }
+
+    public void runFrom(int from) {
+        if (result == null || result.length != LL) {
+            result = new double[LL];
+            from = 0;
         }
+        KERNELS.multiply(capital, growthRate, result, Math.max(0, from), LL);
     }
 }
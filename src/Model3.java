@@ -1,13 +1,15 @@
 public class Model3 {
+    private static final ModelKernels KERNELS = ModelKernels.DEFAULT;
+
     @Bind private int LL;
-    @Bind private double[] debt;
-    @Bind private double[] interest;
-    @Bind private double[] newDebt;
+    @Bind private Series debt;
+    @Bind private Series interest;
+    @Bind(output = true) private double[] newDebt;
 
-    private HistoryWindow historyWindow;
+    private LogSink logSink;
 
-    public Model3(HistoryWindow historyWindow) {
-        this.historyWindow = historyWindow;
+    public Model3(LogSink logSink) {
+        this.logSink = logSink;
     }
 
     public Model3() {
@@ -15,8 +17,19 @@ public class Model3 {
 
     public void run() {
         newDebt = new double[LL];
-        for (int t = 0; t < LL; t++) {
-            newDebt[t] = debt[t] * (1 + interest[t]);
+        runFrom(0);
+    }
+
+    public double[] runChunk(double[] carry) {
+        runFrom(0);
+        return carry;
+    }
+
+    public void runFrom(int from) {
+        if (newDebt == null || newDebt.length != LL) {
+            newDebt = new double[LL];
+            from = 0;
         }
+        KERNELS.multiplyByOnePlus(debt, interest, newDebt, Math.max(0, from), LL);
     }
 }
@@ -1,13 +1,15 @@
 public class Model4 {
+    private static final ModelKernels KERNELS = ModelKernels.DEFAULT;
+
     @Bind private int LL;
-    @Bind private double[] inflow;
-    @Bind private double[] outflow;
-    @Bind private double[] balance;
+    @Bind private Series inflow;
+    @Bind private Series outflow;
+    @Bind(output = true) private double[] balance;
 
-    private HistoryWindow historyWindow;
+    private LogSink logSink;
 
-    public Model4(HistoryWindow historyWindow) {
-        this.historyWindow = historyWindow;
+    public Model4(LogSink logSink) {
+        this.logSink = logSink;
     }
 
     public Model4() {
@@ -15,8 +17,19 @@ public class Model4 {
 
     public void run() {
         balance = new double[LL];
-        for (int t = 0; t < LL; t++) {
-            balance[t] = inflow[t] - outflow[t];
+        runFrom(0);
+    }
+
+    public double[] runChunk(double[] carry) {
+        runFrom(0);
+        return carry;
+    }
+
+    public void runFrom(int from) {
+        if (balance == null || balance.length != LL) {
+            balance = new double[LL];
+            from = 0;
         }
+        KERNELS.subtract(inflow, outflow, balance, Math.max(0, from), LL);
     }
 }
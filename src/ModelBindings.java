@@ -0,0 +1,227 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class ModelBindings {
+    public static final String FIELD_LL = "LL";
+
+    private static final ClassValue<ModelBindings> CACHE = new ClassValue<>() {
+        @Override
+        protected ModelBindings computeValue(Class<?> modelClass) {
+            return new ModelBindings(modelClass);
+        }
+    };
+
+    private final Class<?> modelClass;
+    private final Map<String, Accessor> accessors = new LinkedHashMap<>();
+    private final List<String> variableNames = new ArrayList<>();
+    private final MethodHandle runHandle;
+    private final MethodHandle runFromHandle;
+    private final MethodHandle runChunkHandle;
+
+    private ModelBindings(Class<?> modelClass) {
+        this.modelClass = modelClass;
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(modelClass, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access fields of model " + modelClass.getName(), e);
+        }
+
+        for (Field f : modelClass.getDeclaredFields()) {
+            if (!f.isAnnotationPresent(Bind.class) || Modifier.isStatic(f.getModifiers())) {
+                continue;
+            }
+            try {
+                VarHandle handle = lookup.unreflectVarHandle(f);
+                accessors.put(f.getName(), new Accessor(f.getName(), f.getType(), f.getAnnotation(Bind.class).output(), handle));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot access field '" + f.getName() + "' of model " + modelClass.getName(), e);
+            }
+            if (!f.getName().equals(FIELD_LL)) {
+                variableNames.add(f.getName());
+            }
+        }
+
+        MethodHandle run;
+        try {
+            run = lookup.findVirtual(modelClass, "run", MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(void.class, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            run = null;
+        }
+        runHandle = run;
+
+        MethodHandle runFrom;
+        try {
+            runFrom = lookup.findVirtual(modelClass, "runFrom", MethodType.methodType(void.class, int.class))
+                    .asType(MethodType.methodType(void.class, Object.class, int.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            runFrom = null;
+        }
+        runFromHandle = runFrom;
+
+        MethodHandle runChunk;
+        try {
+            runChunk = lookup.findVirtual(modelClass, "runChunk", MethodType.methodType(double[].class, double[].class))
+                    .asType(MethodType.methodType(double[].class, Object.class, double[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            runChunk = null;
+        }
+        runChunkHandle = runChunk;
+    }
+
+    public static ModelBindings of(Class<?> modelClass) {
+        return CACHE.get(modelClass);
+    }
+
+    public Class<?> getModelClass() {
+        return modelClass;
+    }
+
+    public void run(Object model) throws Throwable {
+        if (runHandle == null) {
+            throw new NoSuchMethodException(modelClass.getName() + ".run()");
+        }
+        runHandle.invokeExact(model);
+    }
+
+    public boolean supportsRunFrom() {
+        return runFromHandle != null;
+    }
+
+    public void runFrom(Object model, int from) throws Throwable {
+        if (runFromHandle == null) {
+            run(model);
+            return;
+        }
+        runFromHandle.invokeExact(model, from);
+    }
+
+    public boolean supportsRunChunk() {
+        return runChunkHandle != null;
+    }
+
+    public double[] runChunk(Object model, double[] carry) throws Throwable {
+        if (runChunkHandle == null) {
+            throw new NoSuchMethodException(modelClass.getName() + ".runChunk(double[])");
+        }
+        return (double[]) runChunkHandle.invokeExact(model, carry);
+    }
+
+    public Accessor get(String name) {
+        return accessors.get(name);
+    }
+
+    public Collection<Accessor> all() {
+        return Collections.unmodifiableCollection(accessors.values());
+    }
+
+    public List<String> getVariableNames() {
+        return Collections.unmodifiableList(variableNames);
+    }
+
+    public static final class Accessor {
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+        private final String name;
+        private final Class<?> type;
+        private final boolean output;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private Accessor(String name, Class<?> type, boolean output, VarHandle handle) {
+            this.name = name;
+            this.type = type;
+            this.output = output;
+            this.getter = handle.toMethodHandle(VarHandle.AccessMode.GET).asType(GETTER_TYPE);
+            this.setter = handle.toMethodHandle(VarHandle.AccessMode.SET).asType(SETTER_TYPE);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public boolean isPeriodCount() {
+            return name.equals(FIELD_LL);
+        }
+
+        public boolean isOutput() {
+            return output;
+        }
+
+        public boolean isArray() {
+            return type == double[].class || type == Series.class;
+        }
+
+        public boolean isSeries() {
+            return type == Series.class;
+        }
+
+        public Object get(Object model) {
+            try {
+                return (Object) getter.invokeExact(model);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        public void set(Object model, Object value) {
+            try {
+                setter.invokeExact(model, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        public int getInt(Object model) {
+            return (Integer) get(model);
+        }
+
+        public void setInt(Object model, int value) {
+            set(model, value);
+        }
+
+        public double[] getArray(Object model) {
+            Object value = get(model);
+            return value instanceof Series ? ((Series) value).dense() : (double[]) value;
+        }
+
+        public void setArray(Object model, double[] value) {
+            set(model, isSeries() && value != null ? Series.of(value) : value);
+        }
+
+        public Series getSeries(Object model) {
+            Object value = get(model);
+            return value instanceof double[] ? Series.of((double[]) value) : (Series) value;
+        }
+
+        public void setSeries(Object model, Series value) {
+            set(model, isSeries() || value == null ? value : value.dense());
+        }
+
+        private static RuntimeException rethrow(Throwable e) {
+            if (e instanceof RuntimeException) {
+                return (RuntimeException) e;
+            }
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            return new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+import java.lang.reflect.Constructor;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class ModelDefinition {
+    private static final int SHARED_LABELS_LIMIT = 16;
+    private static final ClassValue<ModelDefinition> DEFINITIONS = new ClassValue<>() {
+        @Override
+        protected ModelDefinition computeValue(Class<?> modelClass) {
+            return new ModelDefinition(modelClass);
+        }
+    };
+    private static final Map<String, ModelDefinition> PLUGINS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final Class<?> modelClass;
+    private final ModelBindings bindings;
+    private final List<String> variableNames;
+    private final Constructor<?> logSinkConstructor;
+    private final Constructor<?> defaultConstructor;
+    private final Map<String, List<String>> sharedLabels = new LinkedHashMap<>(SHARED_LABELS_LIMIT, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > SHARED_LABELS_LIMIT;
+        }
+    };
+
+    private ModelDefinition(Class<?> modelClass) {
+        this.name = modelClass.getName();
+        this.modelClass = modelClass;
+        this.bindings = ModelBindings.of(modelClass);
+        this.variableNames = Collections.unmodifiableList(bindings.getVariableNames());
+        this.logSinkConstructor = findConstructor(modelClass, LogSink.class);
+        this.defaultConstructor = findConstructor(modelClass);
+        if (logSinkConstructor == null && defaultConstructor == null) {
+            throw new IllegalArgumentException("Model " + name + " has neither a (LogSink) nor a no-arg constructor");
+        }
+    }
+
+    public static ModelDefinition of(String modelName) throws ClassNotFoundException {
+        ModelDefinition plugin = PLUGINS.get(modelName);
+        return plugin != null ? plugin : of(Class.forName(modelName));
+    }
+
+    public static ModelDefinition of(Class<?> modelClass) {
+        return DEFINITIONS.get(modelClass);
+    }
+
+    static void registerPlugin(ModelDefinition definition) {
+        PLUGINS.put(definition.getName(), definition);
+    }
+
+    public static Set<String> getPluginNames() {
+        return new TreeSet<>(PLUGINS.keySet());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<?> getModelClass() {
+        return modelClass;
+    }
+
+    public ModelBindings getBindings() {
+        return bindings;
+    }
+
+    public List<String> getVariableNames() {
+        return variableNames;
+    }
+
+    public boolean hasLogSinkConstructor() {
+        return logSinkConstructor != null;
+    }
+
+    public Object newInstance(LogSink logSink) throws ReflectiveOperationException {
+        return logSinkConstructor != null ? logSinkConstructor.newInstance(logSink) : defaultConstructor.newInstance();
+    }
+
+    public List<String> sharedLabels(List<String> labels) {
+        if (labels.isEmpty()) {
+            return List.of();
+        }
+        String key = labels.size() + "\n" + labels.get(0) + "\n" + labels.get(labels.size() - 1);
+        synchronized (sharedLabels) {
+            List<String> shared = sharedLabels.get(key);
+            if (shared != null && shared.equals(labels)) {
+                return shared;
+            }
+        }
+        List<String> copy = List.copyOf(labels);
+        synchronized (sharedLabels) {
+            sharedLabels.put(key, copy);
+        }
+        return copy;
+    }
+
+    private static Constructor<?> findConstructor(Class<?> modelClass, Class<?>... parameterTypes) {
+        try {
+            Constructor<?> constructor = modelClass.getDeclaredConstructor(parameterTypes);
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+import java.util.Arrays;
+
+public interface ModelKernels {
+    String VECTOR_MODULE = "jdk.incubator.vector";
+    int TAIL_BLOCK = 1024;
+
+    ModelKernels SCALAR = new ScalarKernels();
+    ModelKernels DEFAULT = select(System.getProperty("savings.kernels", "auto"), Boolean.getBoolean("savings.kernels.prefixScan"));
+
+    String getName();
+
+    int getScanBlock();
+
+    void multiply(double[] a, double[] b, double[] out, int from, int to);
+
+    void multiplyByOnePlus(double[] values, double[] rates, double[] out, int from, int to);
+
+    void subtract(double[] a, double[] b, double[] out, int from, int to);
+
+    void accumulateSavings(double[] income, double[] fraction, double[] price, double[] quantity,
+                           double[] deposit, double[] depositRate, double[] initial, double[] totals, int from, int to);
+
+    default void multiply(Series a, Series b, double[] out, int from, int to) {
+        for (int i = from; i < to; ) {
+            int end = Math.min(to, Math.min(a.segmentEnd(i), b.segmentEnd(i)));
+            if (a.isPhysical(i) && b.isPhysical(i)) {
+                multiply(a.getPhysical(), b.getPhysical(), out, i, end);
+            } else if (a.isPhysical(i)) {
+                double[] x = a.getPhysical();
+                double bValue = b.get(i);
+                for (int j = i; j < end; j++) {
+                    out[j] = x[j] * bValue;
+                }
+            } else if (b.isPhysical(i)) {
+                double[] y = b.getPhysical();
+                double aValue = a.get(i);
+                for (int j = i; j < end; j++) {
+                    out[j] = aValue * y[j];
+                }
+            } else {
+                Arrays.fill(out, i, end, a.get(i) * b.get(i));
+            }
+            i = end;
+        }
+    }
+
+    default void multiplyByOnePlus(Series values, Series rates, double[] out, int from, int to) {
+        for (int i = from; i < to; ) {
+            int end = Math.min(to, Math.min(values.segmentEnd(i), rates.segmentEnd(i)));
+            if (values.isPhysical(i) && rates.isPhysical(i)) {
+                multiplyByOnePlus(values.getPhysical(), rates.getPhysical(), out, i, end);
+            } else if (values.isPhysical(i)) {
+                double[] x = values.getPhysical();
+                double rate = rates.get(i);
+                for (int j = i; j < end; j++) {
+                    out[j] = x[j] * (1 + rate);
+                }
+            } else if (rates.isPhysical(i)) {
+                double[] y = rates.getPhysical();
+                double value = values.get(i);
+                for (int j = i; j < end; j++) {
+                    out[j] = value * (1 + y[j]);
+                }
+            } else {
+                Arrays.fill(out, i, end, values.get(i) * (1 + rates.get(i)));
+            }
+            i = end;
+        }
+    }
+
+    default void subtract(Series a, Series b, double[] out, int from, int to) {
+        for (int i = from; i < to; ) {
+            int end = Math.min(to, Math.min(a.segmentEnd(i), b.segmentEnd(i)));
+            if (a.isPhysical(i) && b.isPhysical(i)) {
+                subtract(a.getPhysical(), b.getPhysical(), out, i, end);
+            } else if (a.isPhysical(i)) {
+                double[] x = a.getPhysical();
+                double bValue = b.get(i);
+                for (int j = i; j < end; j++) {
+                    out[j] = x[j] - bValue;
+                }
+            } else if (b.isPhysical(i)) {
+                double[] y = b.getPhysical();
+                double aValue = a.get(i);
+                for (int j = i; j < end; j++) {
+                    out[j] = aValue - y[j];
+                }
+            } else {
+                Arrays.fill(out, i, end, a.get(i) - b.get(i));
+            }
+            i = end;
+        }
+    }
+
+    default void accumulateSavings(Series income, Series fraction, Series price, Series quantity,
+                                   Series deposit, Series depositRate, Series initial, double[] totals, int from, int to) {
+        Series[] inputs = {income, fraction, price, quantity, deposit, depositRate, initial};
+        double[][] blocks = null;
+        boolean[] filled = new boolean[inputs.length];
+        for (int i = from; i < to; ) {
+            int end = to;
+            int physical = 0;
+            for (Series input : inputs) {
+                end = Math.min(end, input.segmentEnd(i));
+                physical += input.isPhysical(i) ? 1 : 0;
+            }
+
+            if (physical == inputs.length) {
+                accumulateSavings(income.getPhysical(), fraction.getPhysical(), price.getPhysical(), quantity.getPhysical(),
+                        deposit.getPhysical(), depositRate.getPhysical(), initial.getPhysical(), totals, i, end);
+            } else if (physical == 0) {
+                double savedIncome = income.get(i) * fraction.get(i);
+                double ethProfit = (price.get(i) - price.get(i - 1)) * quantity.get(i);
+                double bankInterest = deposit.get(i) * depositRate.get(i);
+                double initialValue = initial.get(i);
+                double total = totals[i - 1] + savedIncome + ethProfit + bankInterest + initialValue;
+                totals[i] = total;
+                // The price is constant inside a non-physical segment, so there is no ETH profit after its first period.
+                for (int j = i + 1; j < end; j++) {
+                    total = total + savedIncome + bankInterest + initialValue;
+                    totals[j] = total;
+                }
+            } else {
+                if (blocks == null) {
+                    blocks = new double[inputs.length][TAIL_BLOCK + 1];
+                }
+                Arrays.fill(filled, false);
+                double total = totals[i - 1];
+                for (int start = i; start < end; ) {
+                    int blockEnd = Math.min(end, start + TAIL_BLOCK);
+                    for (int k = 0; k < inputs.length; k++) {
+                        if (!filled[k]) {
+                            inputs[k].copyTo(start - 1, blockEnd, blocks[k], 0);
+                            filled[k] = !inputs[k].isPhysical(i) && start > i && blockEnd - start == TAIL_BLOCK;
+                        }
+                    }
+                    total = accumulateBlock(blocks[0], blocks[1], blocks[2], blocks[3], blocks[4], blocks[5], blocks[6],
+                            total, totals, start, blockEnd - start);
+                    start = blockEnd;
+                }
+            }
+            i = end;
+        }
+    }
+
+    private static double accumulateBlock(double[] income, double[] fraction, double[] price, double[] quantity,
+                                          double[] deposit, double[] depositRate, double[] initial,
+                                          double total, double[] totals, int start, int length) {
+        for (int j = 1; j <= length; j++) {
+            double savedIncome = income[j] * fraction[j];
+            double ethProfit = (price[j] - price[j - 1]) * quantity[j];
+            double bankInterest = deposit[j] * depositRate[j];
+            total = total + savedIncome + ethProfit + bankInterest + initial[j];
+            totals[start + j - 1] = total;
+        }
+        return total;
+    }
+
+    static ModelKernels vector(boolean prefixScan) {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return null;
+        }
+        try {
+            return (ModelKernels) Class.forName("VectorKernels").getDeclaredConstructor(boolean.class).newInstance(prefixScan);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static ModelKernels select(String mode, boolean prefixScan) {
+        if (mode.equals("scalar")) {
+            return SCALAR;
+        }
+        ModelKernels vector = vector(prefixScan);
+        if (vector == null && mode.equals("vector")) {
+            System.err.println("Vector kernels requested but --add-modules " + VECTOR_MODULE + " is missing, using scalar kernels.");
+        }
+        return vector == null ? SCALAR : vector;
+    }
+}
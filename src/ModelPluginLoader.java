@@ -0,0 +1,174 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ModelPluginLoader implements Closeable {
+    private static final String SOURCE_SUFFIX = ".java";
+    private static final Pattern PACKAGE = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+    private static final long RELOAD_DELAY_MS = 200;
+
+    private final Path cacheDir;
+    private final LogSink logSink;
+    private final Map<Path, Loaded> loaded = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private Thread watcher;
+    private volatile Consumer<ModelDefinition> reloadListener = definition -> { };
+
+    public ModelPluginLoader(Path cacheDir, LogSink logSink) {
+        this.cacheDir = cacheDir;
+        this.logSink = logSink;
+    }
+
+    public static Path defaultCacheDir() {
+        String dir = System.getProperty("savings.plugins.cache");
+        return dir != null ? Paths.get(dir) : Paths.get(System.getProperty("user.home"), ".savings-simulator", "plugin-cache");
+    }
+
+    public List<ModelDefinition> loadDirectory(Path directory) throws IOException {
+        List<Path> sources = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SOURCE_SUFFIX)) {
+            for (Path source : stream) {
+                sources.add(source);
+            }
+        }
+        sources.sort(null);
+        List<ModelDefinition> definitions = new ArrayList<>();
+        for (Path source : sources) {
+            definitions.add(load(source));
+        }
+        return definitions;
+    }
+
+    public ModelDefinition load(Path source) throws IOException {
+        Path file = source.toAbsolutePath().normalize();
+        String code = Files.readString(file, StandardCharsets.UTF_8);
+        String className = className(file, code);
+        String key = JavaSourceCompiler.cacheKey(code);
+        Loaded previous = loaded.get(file);
+        if (previous != null && previous.key.equals(key)) {
+            return previous.definition;
+        }
+
+        long start = System.nanoTime();
+        Map<String, byte[]> classes = JavaSourceCompiler.loadFromDisk(cacheDir, key, logSink);
+        boolean fromCache = classes != null;
+        if (!fromCache) {
+            classes = JavaSourceCompiler.compile("model plugin " + file.getFileName(), className, code);
+            JavaSourceCompiler.saveToDisk(cacheDir, key, classes, logSink);
+        }
+        Class<?> modelClass;
+        try {
+            modelClass = JavaSourceCompiler.define(classes, className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException(file.getFileName() + " does not define class " + className, e);
+        }
+        ModelDefinition definition = ModelDefinition.of(modelClass);
+        ModelDefinition.registerPlugin(definition);
+        loaded.put(file, new Loaded(key, definition));
+        logSink.log(LogLevel.INFO, "Model plugin {} {} in {} ms.", className,
+                fromCache ? "loaded from bytecode cache" : "compiled", (System.nanoTime() - start) / 1_000_000);
+        return definition;
+    }
+
+    public synchronized void watch(Path directory, Consumer<ModelDefinition> onReload) throws IOException {
+        reloadListener = onReload;
+        if (watchService == null) {
+            watchService = directory.getFileSystem().newWatchService();
+            watcher = new Thread(this::watchLoop, "model-plugin-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+        directory.toAbsolutePath().normalize().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        logSink.log(LogLevel.INFO, "Watching {} for model plugin changes.", directory);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watcher.interrupt();
+            watchService.close();
+            watchService = null;
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                Set<Path> changed = new LinkedHashSet<>();
+                collectChanges(watchService.take(), changed);
+                Thread.sleep(RELOAD_DELAY_MS);
+                WatchKey more;
+                while ((more = watchService.poll()) != null) {
+                    collectChanges(more, changed);
+                }
+                for (Path source : changed) {
+                    reload(source);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void collectChanges(WatchKey key, Set<Path> changed) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path && event.context().toString().endsWith(SOURCE_SUFFIX)) {
+                changed.add(directory.resolve((Path) event.context()));
+            }
+        }
+        key.reset();
+    }
+
+    private void reload(Path source) {
+        if (!Files.isRegularFile(source)) {
+            return;
+        }
+        Loaded previous = loaded.get(source);
+        try {
+            ModelDefinition definition = load(source);
+            if (previous == null || previous.definition != definition) {
+                logSink.log(LogLevel.INFO, "Model plugin {} reloaded from {}", definition.getName(), source.getFileName());
+                reloadListener.accept(definition);
+            }
+        } catch (IOException | RuntimeException e) {
+            logSink.log(LogLevel.ERROR, "Failed to reload model plugin {} - {}", source.getFileName(), e.getMessage());
+        }
+    }
+
+    private static String className(Path file, String code) {
+        String fileName = file.getFileName().toString();
+        String simpleName = fileName.substring(0, fileName.length() - SOURCE_SUFFIX.length());
+        Matcher packageMatcher = PACKAGE.matcher(code);
+        return packageMatcher.find() ? packageMatcher.group(1) + "." + simpleName : simpleName;
+    }
+
+    private static class Loaded {
+        final String key;
+        final ModelDefinition definition;
+
+        Loaded(String key, ModelDefinition definition) {
+            this.key = key;
+            this.definition = definition;
+        }
+    }
+}
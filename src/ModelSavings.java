@@ -1,72 +1,99 @@
 public class ModelSavings {
+    private static final ModelKernels KERNELS = ModelKernels.DEFAULT;
+
     @Bind private int LL;
 
-    @Bind private double[] monthlyIncome;
-    @Bind private double[] savingFraction;
+    @Bind private Series monthlyIncome;
+    @Bind private Series savingFraction;
 
-    @Bind private double[] ethereumDollar;
-    @Bind private double[] ETHquantity;
+    @Bind private Series ethereumDollar;
+    @Bind private Series ETHquantity;
 
-    @Bind private double[] bankDeposit;
-    @Bind private double[] bankDepositRate;
+    @Bind private Series bankDeposit;
+    @Bind private Series bankDepositRate;
 
-    @Bind private double[] initialSavings;
+    @Bind private Series initialSavings;
 
-    @Bind private double[] totalSavings;
+    @Bind(output = true) private double[] totalSavings;
 
-    private HistoryWindow historyWindow;
+    private LogSink logSink;
 
-    public ModelSavings(HistoryWindow historyWindow) {
-        this.historyWindow = historyWindow;
-        historyWindow.appendLog("INFO", "ModelSavings initialized.");
+    public ModelSavings(LogSink logSink) {
+        this.logSink = logSink;
+        logSink.log(LogLevel.INFO, "ModelSavings initialized.");
     }
 
     public void run() {
         if (LL <= 0) {
-            historyWindow.appendLog("ERROR", "Invalid number of months (LL <= 0). Calculations cannot proceed.");
+            logSink.log(LogLevel.ERROR, "Invalid number of months (LL <= 0). Calculations cannot proceed.");
             return;
         }
 
         totalSavings = new double[LL];
-        historyWindow.appendLog("INFO", "Model calculations started for " + LL + " months.");
+        if (logSink.isEnabled(LogLevel.INFO)) {
+            logSink.log(LogLevel.INFO, "Model calculations started for {} months.", LL);
+        }
 
-        double previousEthPrice = 0;
+        compute(0, null);
 
-        for (int i = 0; i < LL; i++) {
-            double currentMonthlyIncome = (i < monthlyIncome.length) ? monthlyIncome[i] : monthlyIncome[monthlyIncome.length - 1];
+        logSink.log(LogLevel.INFO, "Model calculations completed successfully.");
+    }
 
-            double savingRate = (i < savingFraction.length) ? savingFraction[i] : savingFraction[savingFraction.length - 1];
+    public void runFrom(int from) {
+        if (from <= 0 || totalSavings == null || totalSavings.length != LL) {
+            run();
+            return;
+        }
+        if (from >= LL) {
+            return;
+        }
+        compute(from, null);
+        if (logSink.isEnabled(LogLevel.INFO)) {
+            logSink.log(LogLevel.INFO, "Model recalculated months {}..{}.", from + 1, LL);
+        }
+    }
 
-            double currentEthPrice = (i < ethereumDollar.length) ? ethereumDollar[i] : ethereumDollar[ethereumDollar.length - 1];
+    public double[] runChunk(double[] carry) {
+        if (LL <= 0) {
+            return carry;
+        }
+        if (totalSavings == null || totalSavings.length != LL) {
+            totalSavings = new double[LL];
+        }
+        double previousEthPrice = compute(0, carry);
+        return new double[] {totalSavings[LL - 1], previousEthPrice};
+    }
 
-            double ethProfit;
-            if (i == 0) {
-                ethProfit = 0;
+    private double compute(int from, double[] carry) {
+        int start;
+        if (from == 0) {
+            double savedIncome = monthlyIncome.get(0) * savingFraction.get(0);
+            double bankInterest = bankDeposit.get(0) * bankDepositRate.get(0);
+            if (carry == null) {
+                double ethProfit = 0;
+                totalSavings[0] = savedIncome + ethProfit + bankInterest + initialSavings.get(0);
+                if (logSink.isEnabled(LogLevel.INFO)) {
+                    logSink.log(LogLevel.INFO, () -> String.format("Month %d: Initial savings set to %.2f", 1, totalSavings[0]));
+                }
             } else {
-                double previousPrice = (i - 1 < ethereumDollar.length) ? ethereumDollar[i - 1] : ethereumDollar[ethereumDollar.length - 1];
-                ethProfit = (currentEthPrice - previousPrice) * ETHquantity[i];
+                double ethProfit = (ethereumDollar.get(0) - carry[1]) * ETHquantity.get(0);
+                totalSavings[0] = carry[0] + savedIncome + ethProfit + bankInterest + initialSavings.get(0);
             }
-
-            double bankInterest = (i < bankDeposit.length && i < bankDepositRate.length) ? (bankDeposit[i] * bankDepositRate[i])
-                    : (bankDeposit[bankDeposit.length - 1] * bankDepositRate[bankDepositRate.length - 1]);
-
-            double initSavings = (i < initialSavings.length) ? initialSavings[i] : initialSavings[initialSavings.length - 1];
-            double savedIncome = currentMonthlyIncome * savingRate;
-
-            if (i == 0) {
-                totalSavings[i] = savedIncome + ethProfit + bankInterest + initSavings;
-                historyWindow.appendLog("INFO", String.format("Month %d: Initial savings set to %.2f", i + 1, totalSavings[i]));
-            } else {
-                totalSavings[i] = totalSavings[i - 1] + savedIncome + ethProfit + bankInterest + initSavings;
+            if (logSink.isEnabled(LogLevel.INFO)) {
+                logSink.log(LogLevel.INFO, () -> String.format("Month %d: Total Savings = %.2f", 1, totalSavings[0]));
             }
+            start = 1;
+        } else {
+            int block = KERNELS.getScanBlock();
+            start = 1 + (from - 1) / block * block;
+        }
 
-            if (i == 0 || i == LL - 1) {
-                historyWindow.appendLog("INFO", String.format("Month %d: Total Savings = %.2f", i + 1, totalSavings[i]));
-            }
+        KERNELS.accumulateSavings(monthlyIncome, savingFraction, ethereumDollar, ETHquantity,
+                bankDeposit, bankDepositRate, initialSavings, totalSavings, start, LL);
 
-            previousEthPrice = currentEthPrice;
+        if (LL > 1 && logSink.isEnabled(LogLevel.INFO)) {
+            logSink.log(LogLevel.INFO, () -> String.format("Month %d: Total Savings = %.2f", LL, totalSavings[LL - 1]));
         }
-
-        historyWindow.appendLog("INFO", "Model calculations completed successfully.");
+        return ethereumDollar.get(LL - 1);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,228 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+public class MonteCarloEngine {
+    public static final double[] PERCENTILES = {5, 50, 95};
+
+    private static final int BLOCK_SIZE = 1024;
+    private static final int HISTOGRAM_BINS = 4096;
+    private static final int PILOT_PATHS = 2048;
+
+    public enum PriceModel {
+        GBM,
+        BOOTSTRAP
+    }
+
+    private final int periodCount;
+    private final double[] baseSavings;
+    private final double[] ethQuantity;
+    private final double initialPrice;
+    private final double[] historicalLogReturns;
+    private final LogSink logSink;
+
+    public MonteCarloEngine(int periodCount, double[] monthlyIncome, double[] savingFraction, double[] bankDeposit,
+                            double[] bankDepositRate, double[] initialSavings, double[] ethereumDollar,
+                            double[] ethQuantity, LogSink logSink) {
+        if (periodCount <= 0) {
+            throw new IllegalArgumentException("Monte Carlo needs loaded data (LL <= 0).");
+        }
+        this.periodCount = periodCount;
+        this.logSink = logSink;
+        this.baseSavings = new double[periodCount];
+        this.ethQuantity = new double[periodCount];
+
+        double cumulative = 0;
+        for (int i = 0; i < periodCount; i++) {
+            cumulative += valueAt(monthlyIncome, i) * valueAt(savingFraction, i)
+                    + valueAt(bankDeposit, i) * valueAt(bankDepositRate, i)
+                    + valueAt(initialSavings, i);
+            baseSavings[i] = cumulative;
+            this.ethQuantity[i] = valueAt(ethQuantity, i);
+        }
+
+        initialPrice = valueAt(ethereumDollar, 0);
+        historicalLogReturns = new double[Math.max(0, Math.min(periodCount, ethereumDollar.length) - 1)];
+        for (int i = 0; i < historicalLogReturns.length; i++) {
+            historicalLogReturns[i] = Math.log(ethereumDollar[i + 1] / ethereumDollar[i]);
+        }
+    }
+
+    public Result run(Config config) {
+        if (config.paths <= 0) {
+            throw new IllegalArgumentException("Monte Carlo needs at least one path (paths = " + config.paths + ").");
+        }
+        if (config.priceModel == PriceModel.BOOTSTRAP && historicalLogReturns.length == 0) {
+            throw new IllegalStateException("Bootstrap needs at least two ETH prices.");
+        }
+
+        long start = System.nanoTime();
+        double drift = config.drift;
+        double volatility = config.volatility;
+        if (Double.isNaN(drift) || Double.isNaN(volatility)) {
+            double mean = 0;
+            for (double r : historicalLogReturns) {
+                mean += r;
+            }
+            mean = historicalLogReturns.length == 0 ? 0 : mean / historicalLogReturns.length;
+            double variance = 0;
+            for (double r : historicalLogReturns) {
+                variance += (r - mean) * (r - mean);
+            }
+            variance = historicalLogReturns.length < 2 ? 0 : variance / (historicalLogReturns.length - 1);
+            volatility = Double.isNaN(volatility) ? Math.sqrt(variance) : volatility;
+            drift = Double.isNaN(drift) ? mean + variance / 2 : drift;
+        }
+        double logDrift = drift - volatility * volatility / 2;
+
+        SplittableRandom root = new SplittableRandom(config.seed);
+        SplittableRandom pilotRandom = root.split();
+        int blockCount = (int) ((config.paths + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        SplittableRandom[] blockRandoms = new SplittableRandom[blockCount];
+        for (int b = 0; b < blockCount; b++) {
+            blockRandoms[b] = root.split();
+        }
+
+        double[] lower = new double[periodCount];
+        double[] upper = new double[periodCount];
+        estimateBounds(config, pilotRandom, logDrift, volatility, lower, upper);
+
+        ConcurrentLinkedQueue<int[]> histograms = new ConcurrentLinkedQueue<>();
+        ThreadLocal<int[]> localHistogram = ThreadLocal.withInitial(() -> {
+            int[] h = new int[periodCount * HISTOGRAM_BINS];
+            histograms.add(h);
+            return h;
+        });
+        double finalLogDrift = logDrift;
+        double finalVolatility = volatility;
+        IntStream.range(0, blockCount).parallel().forEach(b -> {
+            int size = (int) Math.min(BLOCK_SIZE, config.paths - (long) b * BLOCK_SIZE);
+            int[] histogram = localHistogram.get();
+            simulateBlock(config.priceModel, blockRandoms[b], size, finalLogDrift, finalVolatility, (period, totals) -> {
+                int offset = period * HISTOGRAM_BINS;
+                double lo = lower[period];
+                double scale = HISTOGRAM_BINS / (upper[period] - lo);
+                for (int p = 0; p < size; p++) {
+                    int bin = (int) ((totals[p] - lo) * scale);
+                    histogram[offset + Math.max(0, Math.min(HISTOGRAM_BINS - 1, bin))]++;
+                }
+            });
+        });
+
+        int[] merged = new int[periodCount * HISTOGRAM_BINS];
+        for (int[] h : histograms) {
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += h[i];
+            }
+        }
+
+        double[][] bands = new double[PERCENTILES.length][periodCount];
+        for (int period = 0; period < periodCount; period++) {
+            double binWidth = (upper[period] - lower[period]) / HISTOGRAM_BINS;
+            for (int q = 0; q < PERCENTILES.length; q++) {
+                double target = config.paths * PERCENTILES[q] / 100.0;
+                long seen = 0;
+                int offset = period * HISTOGRAM_BINS;
+                for (int bin = 0; bin < HISTOGRAM_BINS; bin++) {
+                    int count = merged[offset + bin];
+                    if (seen + count >= target) {
+                        double fraction = count == 0 ? 0 : (target - seen) / count;
+                        bands[q][period] = lower[period] + (bin + fraction) * binWidth;
+                        break;
+                    }
+                    seen += count;
+                }
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        logSink.log(LogLevel.INFO, () -> "Monte Carlo (" + config.priceModel + ") simulated " + config.paths + " paths over "
+                + periodCount + " months in " + elapsedMillis + " ms.");
+        return new Result(bands);
+    }
+
+    private void estimateBounds(Config config, SplittableRandom random, double logDrift, double volatility,
+                                double[] lower, double[] upper) {
+        int size = (int) Math.min(PILOT_PATHS, config.paths);
+        simulateBlock(config.priceModel, random, size, logDrift, volatility, (period, totals) -> {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int p = 0; p < size; p++) {
+                min = Math.min(min, totals[p]);
+                max = Math.max(max, totals[p]);
+            }
+            double margin = Math.max((max - min) * 0.5, Math.max(Math.abs(max), 1.0) * 1e-9);
+            lower[period] = min - margin;
+            upper[period] = max + margin;
+        });
+    }
+
+    private void simulateBlock(PriceModel priceModel, SplittableRandom random, int size, double logDrift,
+                               double volatility, PeriodConsumer consumer) {
+        double[] prices = new double[size];
+        double[] ethProfit = new double[size];
+        double[] totals = new double[size];
+        Arrays.fill(prices, initialPrice);
+
+        for (int p = 0; p < size; p++) {
+            totals[p] = baseSavings[0];
+        }
+        consumer.accept(0, totals);
+
+        for (int period = 1; period < periodCount; period++) {
+            double quantity = ethQuantity[period];
+            for (int p = 0; p < size; p++) {
+                double logReturn = priceModel == PriceModel.GBM
+                        ? logDrift + volatility * random.nextGaussian()
+                        : historicalLogReturns[random.nextInt(historicalLogReturns.length)];
+                double next = prices[p] * Math.exp(logReturn);
+                ethProfit[p] += (next - prices[p]) * quantity;
+                prices[p] = next;
+                totals[p] = baseSavings[period] + ethProfit[p];
+            }
+            consumer.accept(period, totals);
+        }
+    }
+
+    private static double valueAt(double[] arr, int i) {
+        if (arr == null || arr.length == 0) {
+            return 0.0;
+        }
+        return i < arr.length ? arr[i] : arr[arr.length - 1];
+    }
+
+    private interface PeriodConsumer {
+        void accept(int period, double[] totals);
+    }
+
+    public static class Config {
+        public long paths = 100_000;
+        public PriceModel priceModel = PriceModel.GBM;
+        public long seed = 42L;
+        public double drift = Double.NaN;
+        public double volatility = Double.NaN;
+    }
+
+    public static class Result {
+        private final double[][] bands;
+
+        Result(double[][] bands) {
+            this.bands = bands;
+        }
+
+        public double[] getBand(int percentileIndex) {
+            return bands[percentileIndex];
+        }
+
+        public List<String> getBandNames(String variable) {
+            List<String> names = new ArrayList<>();
+            for (double p : PERCENTILES) {
+                names.add(variable + "_P" + (int) p);
+            }
+            return names;
+        }
+    }
+}
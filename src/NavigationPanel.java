@@ -10,7 +10,7 @@ public class NavigationPanel extends RoundedPanel {
         setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
         setOpaque(false);
 
-        add(createNavigationMenu("Simulation", new String[]{"Select model", "Load data", "Run model", "Get results"},
+        add(createNavigationMenu("Simulation", new String[]{"Select model", "Load plugin", "Load data", "Run model", "Monte Carlo", "Get results"},
                 "resources/icons/play_circle_outline_24dp_5F6368.png", simulationListener));
 
         add(Box.createVerticalStrut(10));
@@ -25,7 +25,7 @@ public class NavigationPanel extends RoundedPanel {
 
         add(Box.createVerticalStrut(10));
 
-        add(createNavigationMenu("Logs", new String[]{"History"},
+        add(createNavigationMenu("Logs", new String[]{"History", "Performance"},
                 "resources/icons/manage_search_24dp_5F6368 (1).png", logsListener));
 
         add(Box.createVerticalStrut(10));
@@ -0,0 +1,153 @@
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class PerformanceWindow extends JFrame {
+    private static final int REFRESH_INTERVAL_MS = 1000;
+    private static final String[] STAGE_COLUMNS = {"Stage", "Count", "Failures", "Mean ms", "p50 ms", "p90 ms", "p99 ms",
+            "Max ms", "Total ms", "Alloc/call", "Alloc total"};
+    private static final String[] COUNTER_COLUMNS = {"Counter", "Value"};
+
+    private final Metrics metrics;
+    private final LogSink logSink;
+    private final MetricsTableModel stageModel = new MetricsTableModel(STAGE_COLUMNS);
+    private final MetricsTableModel counterModel = new MetricsTableModel(COUNTER_COLUMNS);
+
+    public PerformanceWindow(Metrics metrics, LogSink logSink) {
+        super("Performance");
+        this.metrics = metrics;
+        this.logSink = logSink;
+        setSize(1000, 500);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
+        setLayout(new BorderLayout());
+
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JButton resetButton = new JButton("Reset");
+        resetButton.addActionListener(e -> {
+            metrics.reset();
+            refresh();
+            logSink.log(LogLevel.INFO, "Performance metrics reset.");
+        });
+        JButton saveButton = new JButton("Save...");
+        saveButton.addActionListener(e -> saveDump());
+        topPanel.add(resetButton);
+        topPanel.add(saveButton);
+        topPanel.add(new JLabel(Metrics.isAllocationTracked()
+                ? "Allocation is measured per thread with ThreadMXBean."
+                : "Allocation tracking is not supported by this JVM."));
+        add(topPanel, BorderLayout.NORTH);
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(createTable(stageModel)), new JScrollPane(createTable(counterModel)));
+        splitPane.setResizeWeight(0.7);
+        add(splitPane, BorderLayout.CENTER);
+
+        Timer refreshTimer = new Timer(REFRESH_INTERVAL_MS, e -> {
+            if (isVisible()) {
+                refresh();
+            }
+        });
+        refreshTimer.start();
+        refresh();
+    }
+
+    private JTable createTable(MetricsTableModel model) {
+        JTable table = new JTable(model);
+        table.setFont(new Font("Monospaced", Font.PLAIN, 13));
+        table.setRowHeight(22);
+        return table;
+    }
+
+    private void refresh() {
+        List<Object[]> stageRows = new ArrayList<>();
+        for (Metrics.Stage stage : metrics.getStages()) {
+            stageRows.add(new Object[]{stage.getName(), stage.getCount(), stage.getFailures(),
+                    millis(stage.getMeanMillis()), millis(stage.getP50Millis()), millis(stage.getP90Millis()),
+                    millis(stage.getP99Millis()), millis(stage.getMaxMillis()), millis(stage.getTotalMillis()),
+                    bytes(stage.getAllocatedBytesPerCall()), bytes(stage.getAllocatedBytes())});
+        }
+        stageModel.setRows(stageRows);
+
+        List<Object[]> counterRows = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : metrics.getCounters().entrySet()) {
+            counterRows.add(new Object[]{entry.getKey(), entry.getValue()});
+        }
+        counterModel.setRows(counterRows);
+    }
+
+    private void saveDump() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Save Metrics (.json or .txt)");
+        chooser.setSelectedFile(new File("metrics.json"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+        try {
+            metrics.dumpTo(file.toPath());
+            logSink.log(LogLevel.INFO, "Performance metrics saved to: {}", file.getAbsolutePath());
+        } catch (IOException e) {
+            logSink.log(LogLevel.ERROR, "Error saving performance metrics: {}", e.getMessage());
+            JOptionPane.showMessageDialog(this, "Error saving metrics: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private static String millis(double value) {
+        return String.format("%.3f", value);
+    }
+
+    private static String bytes(long value) {
+        if (value < 1024) {
+            return value + " B";
+        }
+        if (value < 1024 * 1024) {
+            return String.format("%.1f KB", value / 1024.0);
+        }
+        return String.format("%.1f MB", value / (1024.0 * 1024));
+    }
+
+    private static class MetricsTableModel extends AbstractTableModel {
+        private final String[] columns;
+        private List<Object[]> rows = new ArrayList<>();
+
+        MetricsTableModel(String[] columns) {
+            this.columns = columns;
+        }
+
+        void setRows(List<Object[]> rows) {
+            boolean sameShape = rows.size() == this.rows.size();
+            this.rows = rows;
+            if (sameShape && !rows.isEmpty()) {
+                fireTableRowsUpdated(0, rows.size() - 1);
+            } else {
+                fireTableDataChanged();
+            }
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columns[column];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            return rows.get(rowIndex)[columnIndex];
+        }
+    }
+}
@@ -0,0 +1,297 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+public class ResultsExporter {
+    private static final int FLUSH_THRESHOLD = 1 << 16;
+    private static final double MIN_PLAIN = 1e-3;
+    private static final double MAX_PLAIN = 1e7;
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8};
+
+    public enum Format {
+        TSV('\t'), CSV(',');
+
+        private final char separator;
+
+        Format(char separator) {
+            this.separator = separator;
+        }
+
+        public char getSeparator() {
+            return separator;
+        }
+    }
+
+    private final Format format;
+    private final Collection<String> variables;
+    private final Target target;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 1024);
+    private long charsWritten;
+
+    private ResultsExporter(Format format, Collection<String> variables, Target target) {
+        this.format = format;
+        this.variables = variables;
+        this.target = target;
+    }
+
+    public static ResultsExporter to(Writer writer, Format format, Collection<String> variables) {
+        return new ResultsExporter(format, variables, new WriterTarget(writer));
+    }
+
+    public static ResultsExporter to(OutputStream stream, Format format, Collection<String> variables) {
+        return new ResultsExporter(format, variables, new ByteTarget(stream, null));
+    }
+
+    public static ResultsExporter to(FileChannel channel, Format format, Collection<String> variables) {
+        return new ResultsExporter(format, variables, new ByteTarget(null, channel));
+    }
+
+    public Collection<String> getVariables() {
+        return variables;
+    }
+
+    public boolean includes(String name) {
+        return variables == null || variables.contains(name);
+    }
+
+    public void writeLabels(String header, List<String> periodLabels) throws IOException {
+        appendField(header);
+        for (int i = 0; i < periodLabels.size(); i++) {
+            buffer.append(format.separator);
+            appendField(periodLabels.get(i));
+            flushIfFull();
+        }
+        endRow();
+    }
+
+    public void writeRow(String name, int value, int count) throws IOException {
+        if (!includes(name)) {
+            return;
+        }
+        appendField(name);
+        for (int i = 0; i < count; i++) {
+            buffer.append(format.separator).append(value);
+            flushIfFull();
+        }
+        endRow();
+    }
+
+    public void writeRow(String name, double[] values) throws IOException {
+        if (!includes(name)) {
+            return;
+        }
+        appendField(name);
+        if (values != null) {
+            for (double value : values) {
+                buffer.append(format.separator);
+                appendDouble(buffer, value);
+                flushIfFull();
+            }
+        }
+        endRow();
+    }
+
+    public void writeRow(String name, Series series) throws IOException {
+        if (!includes(name)) {
+            return;
+        }
+        appendField(name);
+        if (series != null) {
+            for (int i = 0; i < series.getLength(); ) {
+                int end = series.segmentEnd(i);
+                if (series.isPhysical(i)) {
+                    double[] values = series.getPhysical();
+                    for (; i < end; i++) {
+                        buffer.append(format.separator);
+                        appendDouble(buffer, values[i]);
+                        flushIfFull();
+                    }
+                } else {
+                    StringBuilder repeated = new StringBuilder().append(format.separator);
+                    appendDouble(repeated, series.get(i));
+                    for (; i < end; i++) {
+                        buffer.append(repeated);
+                        flushIfFull();
+                    }
+                }
+            }
+        }
+        endRow();
+    }
+
+    public long finish() throws IOException {
+        flush();
+        target.flush();
+        return charsWritten;
+    }
+
+    static void appendDouble(StringBuilder out, double value) {
+        double magnitude = Math.abs(value);
+        if (magnitude < MAX_PLAIN && (magnitude >= MIN_PLAIN || value == 0)) {
+            if (value == 0) {
+                out.append(Double.doubleToRawLongBits(value) == 0 ? "0.0" : "-0.0");
+                return;
+            }
+            for (int digits = 0; digits < POWERS_OF_TEN.length; digits++) {
+                long scaled = Math.round(magnitude * POWERS_OF_TEN[digits]);
+                if (scaled / POWERS_OF_TEN[digits] == magnitude) {
+                    appendScaled(out, value < 0, scaled, digits);
+                    return;
+                }
+            }
+        }
+        out.append(value);
+    }
+
+    private static void appendScaled(StringBuilder out, boolean negative, long scaled, int digits) {
+        long unit = (long) POWERS_OF_TEN[digits];
+        long fraction = scaled % unit;
+        if (negative) {
+            out.append('-');
+        }
+        out.append(scaled / unit).append('.');
+        if (fraction == 0) {
+            out.append('0');
+            return;
+        }
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            digits--;
+        }
+        for (long pad = (long) POWERS_OF_TEN[digits - 1]; pad > fraction; pad /= 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+
+    private void appendField(String field) {
+        if (format == Format.CSV && needsQuoting(field)) {
+            buffer.append('"');
+            for (int i = 0; i < field.length(); i++) {
+                char c = field.charAt(i);
+                if (c == '"') {
+                    buffer.append('"');
+                }
+                buffer.append(c);
+            }
+            buffer.append('"');
+        } else {
+            buffer.append(field);
+        }
+    }
+
+    private static boolean needsQuoting(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void endRow() throws IOException {
+        buffer.append('\n');
+        flushIfFull();
+    }
+
+    private void flushIfFull() throws IOException {
+        if (buffer.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        if (buffer.length() > 0) {
+            target.write(buffer);
+            charsWritten += buffer.length();
+            buffer.setLength(0);
+        }
+    }
+
+    private interface Target {
+        void write(StringBuilder chars) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class WriterTarget implements Target {
+        private final Writer writer;
+        private char[] chars = new char[FLUSH_THRESHOLD + 1024];
+
+        WriterTarget(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(StringBuilder source) throws IOException {
+            if (chars.length < source.length()) {
+                chars = new char[source.length()];
+            }
+            source.getChars(0, source.length(), chars, 0);
+            writer.write(chars, 0, source.length());
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class ByteTarget implements Target {
+        private final OutputStream stream;
+        private final FileChannel channel;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final ByteBuffer bytes = ByteBuffer.allocate(FLUSH_THRESHOLD * 2);
+
+        ByteTarget(OutputStream stream, FileChannel channel) {
+            this.stream = stream;
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(StringBuilder source) throws IOException {
+            CharBuffer chars = CharBuffer.wrap(source);
+            encoder.reset();
+            CoderResult result;
+            do {
+                result = encoder.encode(chars, bytes, true);
+                if (result.isError()) {
+                    result.throwException();
+                }
+                drain();
+            } while (result.isOverflow());
+            while (encoder.flush(bytes).isOverflow()) {
+                drain();
+            }
+            drain();
+        }
+
+        private void drain() throws IOException {
+            bytes.flip();
+            if (channel != null) {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            } else {
+                stream.write(bytes.array(), 0, bytes.limit());
+            }
+            bytes.clear();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (stream != null) {
+                stream.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import javax.swing.table.AbstractTableModel;
+import java.text.DecimalFormat;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+public class ResultsTableModel extends AbstractTableModel {
+    private static final String LABEL_COLUMN = "LATA";
+    private static final String PERCENT_VARIABLE = "savingFraction";
+    private static final ThreadLocal<DecimalFormat> FORMAT = ThreadLocal.withInitial(() -> new DecimalFormat("#,##0.00"));
+
+    private int rowCount;
+    private List<String> periodLabels = Collections.emptyList();
+    private List<String> names = Collections.emptyList();
+    private List<Series> values = Collections.emptyList();
+    private boolean[] percentColumns = new boolean[0];
+    private Set<String> inputNames = Collections.emptySet();
+    private EditListener editListener;
+
+    public interface EditListener {
+        void valueEdited(String name, int row, double value);
+    }
+
+    public void setEditListener(EditListener editListener) {
+        this.editListener = editListener;
+    }
+
+    public boolean setVariables(Controller.ModelVariables modelVar) {
+        if (modelVar == null) {
+            return clear();
+        }
+        boolean structureChanged = !names.equals(modelVar.names);
+        int oldRowCount = rowCount;
+
+        rowCount = modelVar.periodCount;
+        periodLabels = modelVar.periodLabels;
+        names = new ArrayList<>(modelVar.names);
+        values = new ArrayList<>(modelVar.values);
+        inputNames = modelVar.inputNames;
+        percentColumns = new boolean[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            percentColumns[i] = names.get(i).equals(PERCENT_VARIABLE);
+        }
+
+        if (structureChanged) {
+            fireTableStructureChanged();
+        } else if (oldRowCount != rowCount) {
+            fireTableDataChanged();
+        } else if (rowCount > 0) {
+            fireTableRowsUpdated(0, rowCount - 1);
+        }
+        return structureChanged;
+    }
+
+    public boolean clear() {
+        boolean structureChanged = !names.isEmpty();
+        rowCount = 0;
+        periodLabels = Collections.emptyList();
+        names = Collections.emptyList();
+        values = Collections.emptyList();
+        percentColumns = new boolean[0];
+        inputNames = Collections.emptySet();
+        if (structureChanged) {
+            fireTableStructureChanged();
+        } else {
+            fireTableDataChanged();
+        }
+        return structureChanged;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return names.size() + 1;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return column == 0 ? LABEL_COLUMN : names.get(column - 1);
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (column == 0) {
+            return row < periodLabels.size() ? periodLabels.get(row) : "";
+        }
+        Series series = values.get(column - 1);
+        if (series == null || series.getLength() == 0) {
+            return "";
+        }
+        double value = series.get(Math.min(row, series.getLength() - 1));
+        DecimalFormat df = FORMAT.get();
+        return percentColumns[column - 1] ? df.format(value * 100) + "%" : df.format(value);
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column > 0 && editListener != null && inputNames.contains(names.get(column - 1));
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        String text = String.valueOf(value).trim();
+        boolean percent = percentColumns[column - 1];
+        if (percent && text.endsWith("%")) {
+            text = text.substring(0, text.length() - 1).trim();
+        }
+        double parsed;
+        try {
+            parsed = FORMAT.get().parse(text).doubleValue();
+        } catch (ParseException e) {
+            return;
+        }
+        editListener.valueEdited(names.get(column - 1), row, percent ? parsed / 100 : parsed);
+    }
+}
@@ -0,0 +1,45 @@
+final class ScalarKernels implements ModelKernels {
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    @Override
+    public int getScanBlock() {
+        return 1;
+    }
+
+    @Override
+    public void multiply(double[] a, double[] b, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = a[i] * b[i];
+        }
+    }
+
+    @Override
+    public void multiplyByOnePlus(double[] values, double[] rates, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = values[i] * (1 + rates[i]);
+        }
+    }
+
+    @Override
+    public void subtract(double[] a, double[] b, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = a[i] - b[i];
+        }
+    }
+
+    @Override
+    public void accumulateSavings(double[] income, double[] fraction, double[] price, double[] quantity,
+                                  double[] deposit, double[] depositRate, double[] initial, double[] totals, int from, int to) {
+        double total = totals[from - 1];
+        for (int i = from; i < to; i++) {
+            double savedIncome = income[i] * fraction[i];
+            double ethProfit = (price[i] - price[i - 1]) * quantity[i];
+            double bankInterest = deposit[i] * depositRate[i];
+            total = total + savedIncome + ethProfit + bankInterest + initial[i];
+            totals[i] = total;
+        }
+    }
+}
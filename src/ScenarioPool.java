@@ -0,0 +1,85 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+public class ScenarioPool implements AutoCloseable {
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final ModelDefinition definition;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final LogSink logSink;
+    private final LongAdder openedSessions = new LongAdder();
+
+    public ScenarioPool(ModelDefinition definition, int threads, LogSink logSink) {
+        this(definition, Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "scenario-worker-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }), true, logSink);
+    }
+
+    public ScenarioPool(ModelDefinition definition, ExecutorService executor, LogSink logSink) {
+        this(definition, executor, false, logSink);
+    }
+
+    private ScenarioPool(ModelDefinition definition, ExecutorService executor, boolean ownsExecutor, LogSink logSink) {
+        this.definition = definition;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.logSink = logSink;
+    }
+
+    public ModelDefinition getDefinition() {
+        return definition;
+    }
+
+    public long getOpenedSessionCount() {
+        return openedSessions.sum();
+    }
+
+    public Session open(String name) {
+        openedSessions.increment();
+        return new Session(name, new Controller(definition, logSink));
+    }
+
+    @Override
+    public void close() {
+        if (!ownsExecutor) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public final class Session {
+        private final String name;
+        private final Controller controller;
+        private CompletableFuture<?> tail = CompletableFuture.completedFuture(null);
+
+        private Session(String name, Controller controller) {
+            this.name = name;
+            this.controller = controller;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public synchronized <T> CompletableFuture<T> submit(Function<Controller, T> task) {
+            CompletableFuture<T> result = tail.handle((value, error) -> null)
+                    .thenApplyAsync(ignored -> task.apply(controller), executor);
+            tail = result;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ScenarioSweep {
+    private static final String OUTPUT_VARIABLE = "totalSavings";
+    private static final int LEAF_SIZE = 64;
+
+    private final List<Range> ranges;
+    private final Map<String, Series> baseInputs = new HashMap<>();
+    private final int periodCount;
+    private final ModelBindings bindings = ModelBindings.of(ModelSavings.class);
+    private final LogSink logSink;
+
+    public ScenarioSweep(String dataFile, List<Range> ranges, LogSink logSink) {
+        this.ranges = new ArrayList<>(ranges);
+        this.logSink = logSink;
+
+        Controller controller = new Controller("ModelSavings", LogSink.NONE);
+        Controller.ModelVariables base = controller.readDataFrom(dataFile).getModelVariables();
+        periodCount = base.periodCount;
+        for (int i = 0; i < base.names.size(); i++) {
+            baseInputs.put(base.names.get(i), base.values.get(i));
+        }
+
+        for (Range range : ranges) {
+            ModelBindings.Accessor accessor = bindings.get(range.name);
+            if (accessor == null || !accessor.isArray() || accessor.isOutput()) {
+                throw new IllegalArgumentException("'" + range.name + "' is not an input variable of the model.");
+            }
+        }
+        logSink.log(LogLevel.INFO, () -> "Sweep prepared from " + dataFile + " with " + getPointCount() + " points over " + periodCount + " months.");
+    }
+
+    public long getPointCount() {
+        long count = 1;
+        for (Range range : ranges) {
+            count = Math.multiplyExact(count, range.steps);
+        }
+        return count;
+    }
+
+    public void run(ResultConsumer consumer) {
+        run(consumer, ForkJoinPool.commonPool());
+    }
+
+    public void run(ResultConsumer consumer, ForkJoinPool pool) {
+        if (periodCount <= 0) {
+            logSink.log(LogLevel.ERROR, "Sweep base data has no periods (LL <= 0).");
+            return;
+        }
+        long start = System.nanoTime();
+        LongAdder evaluated = new LongAdder();
+        ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+        pool.invoke(new SweepTask(0, getPointCount(), workers, consumer, evaluated));
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        logSink.log(LogLevel.INFO, "Sweep evaluated {} points in {} ms using {} threads.",
+                evaluated.sum(), elapsedMillis, pool.getParallelism());
+    }
+
+    private class SweepTask extends RecursiveAction {
+        private final long from;
+        private final long to;
+        private final ThreadLocal<Worker> workers;
+        private final ResultConsumer consumer;
+        private final LongAdder evaluated;
+
+        SweepTask(long from, long to, ThreadLocal<Worker> workers, ResultConsumer consumer, LongAdder evaluated) {
+            this.from = from;
+            this.to = to;
+            this.workers = workers;
+            this.consumer = consumer;
+            this.evaluated = evaluated;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                Worker worker = workers.get();
+                for (long point = from; point < to; point++) {
+                    consumer.accept(worker.evaluate(point));
+                }
+                evaluated.add(to - from);
+                return;
+            }
+            long mid = (from + to) >>> 1;
+            invokeAll(new SweepTask(from, mid, workers, consumer, evaluated),
+                    new SweepTask(mid, to, workers, consumer, evaluated));
+        }
+    }
+
+    private class Worker {
+        private final ModelSavings model = new ModelSavings(LogSink.NONE);
+        private final ModelBindings.Accessor[] sweptInputs = new ModelBindings.Accessor[ranges.size()];
+        private final ModelBindings.Accessor output = bindings.get(OUTPUT_VARIABLE);
+
+        Worker() {
+            for (ModelBindings.Accessor accessor : bindings.all()) {
+                if (accessor.isPeriodCount()) {
+                    accessor.setInt(model, periodCount);
+                } else if (baseInputs.containsKey(accessor.getName())) {
+                    accessor.setSeries(model, baseInputs.get(accessor.getName()));
+                }
+            }
+            for (int r = 0; r < ranges.size(); r++) {
+                sweptInputs[r] = bindings.get(ranges.get(r).name);
+            }
+        }
+
+        Summary evaluate(long point) {
+            double[] parameters = new double[ranges.size()];
+            long rest = point;
+            for (int r = ranges.size() - 1; r >= 0; r--) {
+                Range range = ranges.get(r);
+                parameters[r] = range.valueAt((int) (rest % range.steps));
+                rest /= range.steps;
+                sweptInputs[r].setSeries(model, Series.constant(parameters[r], periodCount));
+            }
+
+            model.run();
+            double[] total = output.getArray(model);
+
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (double v : total) {
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+            return new Summary(point, parameters, total[total.length - 1], min, max);
+        }
+    }
+
+    public static class Range {
+        public final String name;
+        public final double from;
+        public final double to;
+        public final int steps;
+
+        public Range(String name, double from, double to, int steps) {
+            if (steps < 1) {
+                throw new IllegalArgumentException("Range '" + name + "' needs at least one step");
+            }
+            this.name = name;
+            this.from = from;
+            this.to = to;
+            this.steps = steps;
+        }
+
+        public double valueAt(int step) {
+            return steps == 1 ? from : from + (to - from) * step / (steps - 1);
+        }
+
+        public static Range parse(String spec) {
+            String[] nameAndValues = spec.split("=", 2);
+            String[] parts = nameAndValues.length == 2 ? nameAndValues[1].split(":") : new String[0];
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Expected name=from:to:steps but got: " + spec);
+            }
+            return new Range(nameAndValues[0], Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), Integer.parseInt(parts[2]));
+        }
+    }
+
+    public static class Summary {
+        public final long point;
+        public final double[] parameters;
+        public final double finalValue;
+        public final double min;
+        public final double max;
+
+        Summary(long point, double[] parameters, double finalValue, double min, double max) {
+            this.point = point;
+            this.parameters = parameters;
+            this.finalValue = finalValue;
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    public interface ResultConsumer {
+        void accept(Summary summary);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ScenarioSweep <dataFile> <name=from:to:steps>... [--threads <n>]");
+            System.exit(2);
+        }
+
+        List<Range> ranges = new ArrayList<>();
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--threads")) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                ranges.add(Range.parse(args[i]));
+            }
+        }
+
+        ConsoleLogSink logSink = new ConsoleLogSink(System.err, true);
+        ScenarioSweep sweep = new ScenarioSweep(args[0], ranges, logSink);
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        StringBuilder header = new StringBuilder("point");
+        for (Range range : ranges) {
+            header.append('\t').append(range.name);
+        }
+        out.write(header.append("\tfinal\tmin\tmax\n").toString());
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            sweep.run(summary -> {
+                StringBuilder line = new StringBuilder().append(summary.point);
+                for (double p : summary.parameters) {
+                    line.append('\t').append(p);
+                }
+                line.append('\t').append(summary.finalValue).append('\t').append(summary.min).append('\t').append(summary.max).append('\n');
+                synchronized (out) {
+                    try {
+                        out.write(line.toString());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }, pool);
+        } finally {
+            pool.shutdown();
+        }
+        out.flush();
+    }
+}
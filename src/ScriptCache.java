@@ -0,0 +1,363 @@
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.Script;
+import groovy.transform.CompileStatic;
+import groovy.transform.ThreadInterrupt;
+import groovy.transform.TimedInterrupt;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.Phases;
+import org.codehaus.groovy.control.customizers.ASTTransformationCustomizer;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codehaus.groovy.tools.GroovyClass;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ScriptCache {
+    private static final String CLASS_PREFIX = "Script_";
+    private static final String CLASS_SUFFIX = ".class";
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final long INTERACTIVE_TIMEOUT_SECONDS = 300;
+
+    private final int capacity;
+    private final Path persistenceDir;
+    private final long timeoutSeconds;
+    private final String interruptTag;
+    private CompilerConfiguration dynamicConfiguration;
+    private CompilerConfiguration staticConfiguration;
+    private final Map<String, Class<? extends Script>> entries;
+    private final Set<String> staticFailures;
+    private final Map<String, CompletableFuture<Class<? extends Script>>> pending = new ConcurrentHashMap<>();
+    private long hits;
+    private long misses;
+    private long diskLoads;
+    private long compileNanos;
+    private long compiledCount;
+    private long savedNanos;
+
+    public ScriptCache(int capacity, Path persistenceDir) {
+        this(capacity, persistenceDir, 0);
+    }
+
+    public ScriptCache(int capacity, Path persistenceDir, long timeoutSeconds) {
+        this.capacity = capacity;
+        this.persistenceDir = persistenceDir;
+        this.timeoutSeconds = timeoutSeconds;
+        this.interruptTag = timeoutSeconds > 0 ? "timeout=" + timeoutSeconds + "\n" : "interrupt\n";
+        this.entries = lruMap(capacity);
+        this.staticFailures = Collections.newSetFromMap(lruMap(capacity));
+    }
+
+    private static <V> Map<String, V> lruMap(int capacity) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    private synchronized CompilerConfiguration getConfiguration(boolean staticMode) {
+        if (dynamicConfiguration == null) {
+            dynamicConfiguration = new CompilerConfiguration();
+            staticConfiguration = new CompilerConfiguration();
+            for (CompilerConfiguration configuration : List.of(dynamicConfiguration, staticConfiguration)) {
+                configuration.addCompilationCustomizers(new ASTTransformationCustomizer(ThreadInterrupt.class));
+                if (timeoutSeconds > 0) {
+                    configuration.addCompilationCustomizers(
+                            new ASTTransformationCustomizer(Map.of("value", timeoutSeconds), TimedInterrupt.class));
+                }
+            }
+            staticConfiguration.addCompilationCustomizers(new ASTTransformationCustomizer(CompileStatic.class));
+        }
+        return staticMode ? staticConfiguration : dynamicConfiguration;
+    }
+
+    public long getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    public static ScriptCache getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    public static ScriptCache getInteractive() {
+        return InteractiveHolder.INTERACTIVE;
+    }
+
+    public Script createScript(String scriptCode, Binding binding, LogSink logSink) {
+        return InvokerHelper.createScript(getScriptClass(scriptCode, false, logSink), binding);
+    }
+
+    public Script createStaticScript(String scriptCode, Map<String, Class<?>> variables, Binding binding, LogSink logSink) {
+        String staticCode = StaticScriptSource.wrap(scriptCode, variables);
+        String staticHash = hash(staticCode);
+        boolean failedBefore;
+        synchronized (this) {
+            failedBefore = staticFailures.contains(staticHash);
+        }
+        if (failedBefore) {
+            return createScript(scriptCode, binding, logSink);
+        }
+        try {
+            return InvokerHelper.createScript(getScriptClass(staticCode, true, logSink), binding);
+        } catch (CompilationFailedException e) {
+            synchronized (this) {
+                staticFailures.add(staticHash);
+            }
+            logSink.log(LogLevel.WARNING, "Static compilation failed, falling back to dynamic mode - {}", e.getMessage());
+            return createScript(scriptCode, binding, logSink);
+        }
+    }
+
+    private Class<? extends Script> getScriptClass(String scriptCode, boolean staticMode, LogSink logSink) {
+        String key = (staticMode ? "S" : "D") + hash(interruptTag + scriptCode);
+        return getScriptClass(key, scriptCode, staticMode, logSink);
+    }
+
+    private Class<? extends Script> getScriptClass(String key, String scriptCode, boolean staticMode, LogSink logSink) {
+        Class<? extends Script> cached = lookup(key, logSink);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<Class<? extends Script>> future = new CompletableFuture<>();
+        CompletableFuture<Class<? extends Script>> inFlight = pending.putIfAbsent(key, future);
+        if (inFlight != null) {
+            synchronized (this) {
+                hits++;
+            }
+            return await(inFlight);
+        }
+        try {
+            Class<? extends Script> scriptClass = lookup(key, logSink);
+            if (scriptClass == null) {
+                scriptClass = load(key, scriptCode, staticMode, logSink);
+            }
+            future.complete(scriptClass);
+            return scriptClass;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            pending.remove(key, future);
+        }
+    }
+
+    private Class<? extends Script> lookup(String key, LogSink logSink) {
+        Class<? extends Script> cached;
+        long saved;
+        long hitCount;
+        long missCount;
+        synchronized (this) {
+            cached = entries.get(key);
+            if (cached == null) {
+                return null;
+            }
+            hits++;
+            saved = compiledCount == 0 ? 0 : compileNanos / compiledCount;
+            savedNanos += saved;
+            hitCount = hits;
+            missCount = misses;
+        }
+        logSink.log(LogLevel.INFO, () -> String.format("Script cache hit (%d hits / %d misses), saved ~%.1f ms of compilation.",
+                hitCount, missCount, saved / 1e6));
+        return cached;
+    }
+
+    private Class<? extends Script> load(String key, String scriptCode, boolean staticMode, LogSink logSink) {
+        synchronized (this) {
+            misses++;
+        }
+        String className = CLASS_PREFIX + key.substring(0, 33);
+        Map<String, byte[]> classes = loadFromDisk(key, logSink);
+        if (classes != null) {
+            synchronized (this) {
+                diskLoads++;
+            }
+            logSink.log(LogLevel.INFO, "Script loaded from compiled cache directory: {}", persistenceDir.resolve(key));
+        } else {
+            long start = System.nanoTime();
+            classes = compile(className, scriptCode, getConfiguration(staticMode));
+            long elapsed = System.nanoTime() - start;
+            long hitCount;
+            long missCount;
+            synchronized (this) {
+                compileNanos += elapsed;
+                compiledCount++;
+                hitCount = hits;
+                missCount = misses;
+            }
+            logSink.log(LogLevel.INFO, () -> String.format("Script compiled in %.1f ms (%d hits / %d misses).",
+                    elapsed / 1e6, hitCount, missCount));
+            saveToDisk(key, classes, logSink);
+        }
+
+        Class<? extends Script> scriptClass = defineClasses(className, classes);
+        synchronized (this) {
+            entries.put(key, scriptClass);
+        }
+        return scriptClass;
+    }
+
+    private static Class<? extends Script> await(CompletableFuture<Class<? extends Script>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Map<String, byte[]> compile(String className, String scriptCode, CompilerConfiguration configuration) {
+        GroovyClassLoader loader = new GroovyClassLoader(ScriptCache.class.getClassLoader(), configuration);
+        CompilationUnit unit = new CompilationUnit(configuration, null, loader);
+        unit.addSource(className + ".groovy", scriptCode);
+        unit.compile(Phases.CLASS_GENERATION);
+
+        Map<String, byte[]> classes = new HashMap<>();
+        for (GroovyClass groovyClass : unit.getClasses()) {
+            classes.put(groovyClass.getName(), groovyClass.getBytes());
+        }
+        return classes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<? extends Script> defineClasses(String className, Map<String, byte[]> classes) {
+        CompiledScriptLoader loader = new CompiledScriptLoader(ScriptCache.class.getClassLoader(), classes);
+        try {
+            return (Class<? extends Script>) loader.loadClass(className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Compiled script class is missing: " + className, e);
+        }
+    }
+
+    private Map<String, byte[]> loadFromDisk(String key, LogSink logSink) {
+        if (persistenceDir == null) {
+            return null;
+        }
+        Path dir = persistenceDir.resolve(key);
+        if (!Files.isDirectory(dir)) {
+            return null;
+        }
+        Map<String, byte[]> classes = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + CLASS_SUFFIX)) {
+            for (Path file : stream) {
+                String fileName = file.getFileName().toString();
+                classes.put(fileName.substring(0, fileName.length() - CLASS_SUFFIX.length()), Files.readAllBytes(file));
+            }
+        } catch (IOException e) {
+            logSink.log(LogLevel.WARNING, "Failed to read compiled script from {} - {}", dir, e.getMessage());
+            return null;
+        }
+        return classes.isEmpty() ? null : classes;
+    }
+
+    private void saveToDisk(String key, Map<String, byte[]> classes, LogSink logSink) {
+        if (persistenceDir == null) {
+            return;
+        }
+        Path dir = persistenceDir.resolve(key);
+        try {
+            Path tmp = Files.createDirectories(persistenceDir).resolve(key + ".tmp");
+            Files.createDirectories(tmp);
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                Files.write(tmp.resolve(entry.getKey() + CLASS_SUFFIX), entry.getValue());
+            }
+            Files.move(tmp, dir);
+        } catch (IOException e) {
+            logSink.log(LogLevel.WARNING, "Failed to persist compiled script to {} - {}", dir, e.getMessage());
+        }
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getDiskLoadCount() {
+        return diskLoads;
+    }
+
+    public synchronized long getSavedNanos() {
+        return savedNanos;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        staticFailures.clear();
+    }
+
+    static String hash(String scriptCode) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(scriptCode.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ScriptCache fromProperties(long defaultTimeoutSeconds) {
+        String dir = System.getProperty("savings.scriptCache.dir");
+        return new ScriptCache(
+                Integer.getInteger("savings.scriptCache.size", DEFAULT_CAPACITY),
+                dir == null ? null : Paths.get(dir),
+                Long.getLong("savings.scripts.timeout", defaultTimeoutSeconds));
+    }
+
+    private static final class DefaultHolder {
+        static final ScriptCache DEFAULT = fromProperties(0);
+    }
+
+    private static final class InteractiveHolder {
+        static final ScriptCache INTERACTIVE = fromProperties(INTERACTIVE_TIMEOUT_SECONDS);
+    }
+
+    private static class CompiledScriptLoader extends ClassLoader {
+        private final Map<String, byte[]> classes;
+
+        CompiledScriptLoader(ClassLoader parent, Map<String, byte[]> classes) {
+            super(parent);
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
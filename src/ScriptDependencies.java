@@ -0,0 +1,35 @@
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+final class ScriptDependencies {
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_$][\\w$]*");
+    private static final Pattern INDEXED_WRITE = Pattern.compile("([A-Za-z_$][\\w$]*)\\s*\\[[^\\]]*\\]\\s*(?:[-+*/]?=(?!=)|\\+\\+|--)");
+
+    private ScriptDependencies() {
+    }
+
+    static Set<String> referencedNames(String scriptCode, Collection<String> candidates) {
+        Set<String> referenced = new LinkedHashSet<>();
+        Matcher identifier = IDENTIFIER.matcher(scriptCode);
+        while (identifier.find()) {
+            if (candidates.contains(identifier.group())) {
+                referenced.add(identifier.group());
+            }
+        }
+        return referenced;
+    }
+
+    static Set<String> mutatedArrays(String scriptCode, Collection<String> candidates) {
+        Set<String> mutated = new LinkedHashSet<>();
+        Matcher write = INDEXED_WRITE.matcher(scriptCode);
+        while (write.find()) {
+            if (candidates.contains(write.group(1))) {
+                mutated.add(write.group(1));
+            }
+        }
+        return mutated;
+    }
+}
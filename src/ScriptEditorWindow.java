@@ -67,7 +67,7 @@ public class ScriptEditorWindow extends JFrame {
             theme.apply(editor);
         } catch (IOException e) {
             e.printStackTrace();
-            historyWindow.appendLog("ERROR", "Failed to load theme for script editor: " + e.getMessage());
+            historyWindow.log(LogLevel.ERROR, "Failed to load theme for script editor: {}", e.getMessage());
         }
         return editor;
     }
@@ -113,11 +113,11 @@ public class ScriptEditorWindow extends JFrame {
                     scriptContent.append(line).append("\n");
                 }
                 scriptEditor.setText(scriptContent.toString());
-                historyWindow.appendLog("INFO", "Script loaded from file: " + file.getName());
+                historyWindow.log(LogLevel.INFO, "Script loaded from file: {}", file.getName());
                 JOptionPane.showMessageDialog(this, "Script loaded successfully from: " + file.getName(), "Success", JOptionPane.INFORMATION_MESSAGE);
             } catch (IOException e) {
                 e.printStackTrace();
-                historyWindow.appendLog("ERROR", "Failed to load script: " + e.getMessage());
+                historyWindow.log(LogLevel.ERROR, "Failed to load script: {}", e.getMessage());
                 JOptionPane.showMessageDialog(this, "Failed to load script.", "Error", JOptionPane.ERROR_MESSAGE);
             }
         }
@@ -131,11 +131,11 @@ public class ScriptEditorWindow extends JFrame {
             File file = chooser.getSelectedFile();
             try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
                 writer.write(scriptEditor.getText());
-                historyWindow.appendLog("INFO", "Script saved to file: " + file.getName());
+                historyWindow.log(LogLevel.INFO, "Script saved to file: {}", file.getName());
                 JOptionPane.showMessageDialog(this, "Script saved successfully to: " + file.getName(), "Success", JOptionPane.INFORMATION_MESSAGE);
             } catch (IOException ex) {
                 ex.printStackTrace();
-                historyWindow.appendLog("ERROR", "Failed to save script: " + ex.getMessage());
+                historyWindow.log(LogLevel.ERROR, "Failed to save script: {}", ex.getMessage());
                 JOptionPane.showMessageDialog(this, "Failed to save script.", "Error", JOptionPane.ERROR_MESSAGE);
             }
         }
@@ -148,17 +148,9 @@ public class ScriptEditorWindow extends JFrame {
             return;
         }
 
-        try {
-            controller.runScript(scriptContent);
-            historyWindow.appendLog("INFO", "Script executed successfully.");
+        mainGUI.submitScript("Editor script", scriptContent, () -> {
+            historyWindow.log(LogLevel.INFO, "Script executed successfully.");
             JOptionPane.showMessageDialog(this, "Script executed successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-
-            mainGUI.refreshResultsTable();
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            historyWindow.appendLog("ERROR", "Failed to execute script: " + e.getMessage());
-            JOptionPane.showMessageDialog(this, "Failed to execute script.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,257 @@
+import java.util.Arrays;
+import java.util.Objects;
+
+public final class Series {
+    public enum Encoding {
+        DENSE, CONSTANT, RUNS, SPARSE
+    }
+
+    private static final int ENTRY_BYTES = Double.BYTES + Integer.BYTES;
+
+    private final Encoding encoding;
+    private final double[] values;
+    private final int[] positions;
+    private final int count;
+    private final double fill;
+    private final int length;
+
+    private Series(double[] values, int count, int length) {
+        this(Encoding.DENSE, count == 0 && length > 0 ? new double[] {0.0} : values, null,
+                count == 0 && length > 0 ? 1 : count, 0.0, length);
+    }
+
+    private Series(Encoding encoding, double[] values, int[] positions, int count, double fill, int length) {
+        this.encoding = encoding;
+        this.values = values;
+        this.positions = positions;
+        this.count = count;
+        this.fill = fill;
+        this.length = length;
+    }
+
+    public static Series of(double[] values) {
+        return new Series(values, values.length, values.length);
+    }
+
+    public static Series padded(double[] values, int count, int length) {
+        return new Series(values, Math.max(0, Math.min(Math.min(count, values.length), length)), length);
+    }
+
+    public static Series constant(double value, int length) {
+        return new Series(new double[] {value}, Math.min(1, length), length);
+    }
+
+    public static Series compress(double[] values, int count, int length) {
+        count = Math.max(0, Math.min(Math.min(count, values.length), length));
+        if (count == 0) {
+            return new Series(new double[0], 0, length);
+        }
+        int stored = count;
+        while (stored > 1 && same(values[stored - 2], values[count - 1])) {
+            stored--;
+        }
+        int runs = 1;
+        int candidate = 0;
+        int votes = 0;
+        for (int i = 0; i < stored; i++) {
+            if (i > 0 && !same(values[i], values[i - 1])) {
+                runs++;
+            }
+            if (votes == 0) {
+                candidate = i;
+            }
+            votes += same(values[i], values[candidate]) ? 1 : -1;
+        }
+        double common = values[candidate];
+        int exceptions = Integer.MAX_VALUE;
+        if (same(values[count - 1], common) || count == length) {
+            exceptions = 0;
+            for (int i = 0; i < count; i++) {
+                if (!same(values[i], common)) {
+                    exceptions++;
+                }
+            }
+        }
+
+        long denseBytes = (long) stored * Double.BYTES;
+        if (stored > 1 && exceptions < runs && (long) exceptions * ENTRY_BYTES * 2 <= denseBytes) {
+            int[] indices = new int[exceptions];
+            double[] exceptional = new double[exceptions];
+            for (int i = 0, e = 0; i < count; i++) {
+                if (!same(values[i], common)) {
+                    indices[e] = i;
+                    exceptional[e++] = values[i];
+                }
+            }
+            return new Series(Encoding.SPARSE, exceptional, indices, exceptions, common, length);
+        }
+        if (stored > 1 && (long) runs * ENTRY_BYTES * 2 <= denseBytes) {
+            int[] starts = new int[runs];
+            double[] runValues = new double[runs];
+            runValues[0] = values[0];
+            for (int i = 1, r = 1; i < stored; i++) {
+                if (!same(values[i], values[i - 1])) {
+                    starts[r] = i;
+                    runValues[r++] = values[i];
+                }
+            }
+            return new Series(Encoding.RUNS, runValues, starts, runs, 0.0, length);
+        }
+        return new Series(Arrays.copyOf(values, stored), stored, length);
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public Encoding getEncoding() {
+        return encoding == Encoding.DENSE && count == 1 && length > 1 ? Encoding.CONSTANT : encoding;
+    }
+
+    public int getStoredCount() {
+        return count;
+    }
+
+    public long getRetainedBytes() {
+        return (long) values.length * Double.BYTES + (positions == null ? 0 : (long) positions.length * Integer.BYTES);
+    }
+
+    public double getCompressionRatio() {
+        return (double) length * Double.BYTES / Math.max(Double.BYTES, getRetainedBytes());
+    }
+
+    public int getPhysicalLength() {
+        return encoding == Encoding.DENSE ? count : 0;
+    }
+
+    public double[] getPhysical() {
+        return encoding == Encoding.DENSE ? values : null;
+    }
+
+    public boolean isPhysical(int index) {
+        return encoding == Encoding.DENSE && index < count;
+    }
+
+    public int segmentEnd(int index) {
+        switch (encoding) {
+            case RUNS:
+                int run = run(index);
+                return run + 1 < count ? positions[run + 1] : length;
+            case SPARSE:
+                int found = Arrays.binarySearch(positions, 0, count, index);
+                if (found >= 0) {
+                    return index + 1;
+                }
+                return -found - 1 < count ? positions[-found - 1] : length;
+            default:
+                return index < count ? count : length;
+        }
+    }
+
+    public double getTail() {
+        return length == 0 ? 0.0 : get(length - 1);
+    }
+
+    public boolean isDense() {
+        return encoding == Encoding.DENSE && count == length;
+    }
+
+    public double get(int index) {
+        switch (encoding) {
+            case RUNS:
+                return values[run(index)];
+            case SPARSE:
+                int found = Arrays.binarySearch(positions, 0, count, index);
+                return found >= 0 ? values[found] : fill;
+            default:
+                return values[Math.min(index, count - 1)];
+        }
+    }
+
+    public Series with(int from, double[] source, int sourceCount) {
+        Objects.checkFromIndexSize(from, sourceCount, length);
+        int end = from + sourceCount;
+        int physical = encoding != Encoding.DENSE ? length : Math.max(count, end < length ? end + 1 : end);
+        double[] copy = new double[physical];
+        copyTo(0, physical, copy, 0);
+        System.arraycopy(source, 0, copy, from, sourceCount);
+        return new Series(copy, physical, length);
+    }
+
+    public void copyTo(int from, int to, double[] dest, int destFrom) {
+        for (int i = from; i < to; ) {
+            int end = Math.min(to, segmentEnd(i));
+            if (isPhysical(i)) {
+                System.arraycopy(values, i, dest, destFrom + i - from, end - i);
+            } else {
+                Arrays.fill(dest, destFrom + i - from, destFrom + end - from, get(i));
+            }
+            i = end;
+        }
+    }
+
+    public boolean contentEquals(double[] other) {
+        if (other.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; ) {
+            int end = segmentEnd(i);
+            if (isPhysical(i)) {
+                if (!Arrays.equals(values, i, end, other, i, end)) {
+                    return false;
+                }
+            } else {
+                long bits = Double.doubleToLongBits(get(i));
+                for (int j = i; j < end; j++) {
+                    if (Double.doubleToLongBits(other[j]) != bits) {
+                        return false;
+                    }
+                }
+            }
+            i = end;
+        }
+        return true;
+    }
+
+    public double[] toArray() {
+        double[] result = new double[length];
+        copyTo(0, length, result, 0);
+        return result;
+    }
+
+    public double[] dense() {
+        return isDense() && values.length == length ? values : toArray();
+    }
+
+    public Series withLength(int newLength) {
+        if (newLength == length) {
+            return this;
+        }
+        switch (encoding) {
+            case RUNS:
+                return new Series(encoding, values, positions, newLength == 0 ? 0 : run(newLength - 1) + 1, fill, newLength);
+            case SPARSE:
+                if (newLength > length && !same(getTail(), fill)) {
+                    return padded(toArray(), length, newLength);
+                }
+                int kept = Arrays.binarySearch(positions, 0, count, newLength);
+                return new Series(encoding, values, positions, kept >= 0 ? kept : -kept - 1, fill, newLength);
+            default:
+                return new Series(values, Math.min(count, newLength), newLength);
+        }
+    }
+
+    private int run(int index) {
+        int found = Arrays.binarySearch(positions, 0, count, index);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    private static boolean same(double a, double b) {
+        return Double.doubleToRawLongBits(a) == Double.doubleToRawLongBits(b);
+    }
+
+    @Override
+    public String toString() {
+        return LogFormat.preview(this);
+    }
+}
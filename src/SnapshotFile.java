@@ -0,0 +1,581 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+public class SnapshotFile {
+    public static final String EXTENSION = ".snap";
+
+    private static final int MAGIC = 0x504E5353;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int ENTRY_FIXED_SIZE = 2 + 1 + 1 + 4 + 8 + 8;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+    private static final byte FLAG_INPUT = 1;
+    private static final int WINDOW_SIZE = 1 << 24;
+    private static final int MAX_ENCODED_BYTES = 10;
+
+    public enum Encoding {
+        RAW, XOR, DELTA, AUTO
+    }
+
+    private SnapshotFile() {
+    }
+
+    public static void write(Path file, Controller.ModelVariables modelVar, Encoding encoding) throws IOException {
+        int columnCount = modelVar.names.size();
+        byte[][] names = new byte[columnCount][];
+        int directoryLength = 0;
+        for (int c = 0; c < columnCount; c++) {
+            names[c] = modelVar.names.get(c).getBytes(StandardCharsets.UTF_8);
+            directoryLength += ENTRY_FIXED_SIZE + names[c].length;
+        }
+
+        Path target = file.toAbsolutePath();
+        Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ChunkWriter out = new ChunkWriter(channel, HEADER_SIZE + directoryLength);
+            long labelsLength = writeLabels(out, modelVar.periodLabels, modelVar.periodCount);
+
+            ByteBuffer directory = ByteBuffer.allocate(directoryLength).order(ByteOrder.LITTLE_ENDIAN);
+            for (int c = 0; c < columnCount; c++) {
+                Series series = modelVar.values.get(c);
+                double[] values = series == null ? null : series.getPhysical();
+                int count = series == null ? 0 : series.getPhysicalLength();
+                if (series != null && values == null) {
+                    values = series.toArray();
+                    count = values.length;
+                }
+                Encoding chosen = encoding == Encoding.AUTO ? chooseEncoding(values, count) : encoding;
+
+                out.align(Double.BYTES);
+                long offset = out.position();
+                encode(out, values, count, chosen);
+                directory.putShort((short) names[c].length).put(names[c])
+                        .put(modelVar.inputNames.contains(modelVar.names.get(c)) ? FLAG_INPUT : 0)
+                        .put((byte) chosen.ordinal())
+                        .putInt(count)
+                        .putLong(offset)
+                        .putLong(out.position() - offset);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(modelVar.periodCount).putInt(columnCount)
+                    .putInt(directoryLength).putInt(0).putLong(labelsLength).flip();
+            directory.flip();
+            writeFully(channel, header, 0);
+            writeFully(channel, directory, HEADER_SIZE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static Controller.ModelVariables read(Path file) throws IOException {
+        try (Reader reader = new Reader(file)) {
+            Controller.ModelVariables modelVar = new Controller.ModelVariables();
+            modelVar.periodCount = reader.periodCount;
+            modelVar.periodLabels = reader.readLabels();
+            for (Column column : reader.columns) {
+                double[] values = new double[column.count];
+                reader.openColumn(column).read(values, 0, column.count);
+                modelVar.names.add(column.name);
+                modelVar.values.add(column.input ? Series.compress(values, column.count, reader.periodCount)
+                        : Series.padded(values, column.count, reader.periodCount));
+                if (column.input) {
+                    modelVar.inputNames.add(column.name);
+                }
+            }
+            return modelVar;
+        }
+    }
+
+    public static MappedWriter createMapped(Path file, List<String> names, Reader source) throws IOException {
+        return new MappedWriter(file, names, source);
+    }
+
+    private static long writeLabels(ChunkWriter out, List<String> periodLabels, int periodCount) throws IOException {
+        long start = out.position();
+        byte[][] encoded = new byte[periodCount][];
+        int offset = 0;
+        for (int i = 0; i < periodCount; i++) {
+            encoded[i] = i < periodLabels.size() ? periodLabels.get(i).getBytes(StandardCharsets.UTF_8) : new byte[0];
+            out.putInt(offset);
+            offset = Math.addExact(offset, encoded[i].length);
+        }
+        out.putInt(offset);
+        for (byte[] label : encoded) {
+            out.put(label);
+        }
+        return out.position() - start;
+    }
+
+    private static Encoding chooseEncoding(double[] values, int count) {
+        long raw = (long) count * Double.BYTES;
+        long xor = 0;
+        long delta = 0;
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            long bits = Double.doubleToRawLongBits(values[i]);
+            long x = bits ^ previous;
+            xor += x == 0 ? 1 : 1 + 8 - (Long.numberOfLeadingZeros(x) >>> 3) - (Long.numberOfTrailingZeros(x) >>> 3);
+            long d = bits - previous;
+            delta += varintSize((d << 1) ^ (d >> 63));
+            previous = bits;
+        }
+        if (raw <= xor && raw <= delta) {
+            return Encoding.RAW;
+        }
+        return xor <= delta ? Encoding.XOR : Encoding.DELTA;
+    }
+
+    private static void encode(ChunkWriter out, double[] values, int count, Encoding encoding) throws IOException {
+        long previous = 0;
+        switch (encoding) {
+            case RAW:
+                out.putDoubles(values, count);
+                break;
+            case XOR:
+                for (int i = 0; i < count; i++) {
+                    long bits = Double.doubleToRawLongBits(values[i]);
+                    long x = bits ^ previous;
+                    previous = bits;
+                    if (x == 0) {
+                        out.put((byte) 0);
+                        continue;
+                    }
+                    int leading = Long.numberOfLeadingZeros(x) >>> 3;
+                    int trailing = Long.numberOfTrailingZeros(x) >>> 3;
+                    out.put((byte) (0x80 | leading << 3 | trailing));
+                    for (int b = trailing; b < 8 - leading; b++) {
+                        out.put((byte) (x >>> (b << 3)));
+                    }
+                }
+                break;
+            case DELTA:
+                for (int i = 0; i < count; i++) {
+                    long bits = Double.doubleToRawLongBits(values[i]);
+                    long d = bits - previous;
+                    previous = bits;
+                    long zigzag = (d << 1) ^ (d >> 63);
+                    while ((zigzag & ~0x7FL) != 0) {
+                        out.put((byte) (zigzag & 0x7F | 0x80));
+                        zigzag >>>= 7;
+                    }
+                    out.put((byte) zigzag);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported encoding " + encoding);
+        }
+    }
+
+    private static int varintSize(long value) {
+        return value == 0 ? 1 : (64 - Long.numberOfLeadingZeros(value) + 6) / 7;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated snapshot file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static final class ChunkWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long flushedPosition;
+
+        ChunkWriter(FileChannel channel, long position) {
+            this.channel = channel;
+            this.flushedPosition = position;
+        }
+
+        long position() {
+            return flushedPosition + buffer.position();
+        }
+
+        void put(byte b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.put(b);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            for (int offset = 0; offset < bytes.length; ) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        void putInt(int value) throws IOException {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        void putDoubles(double[] values, int count) throws IOException {
+            for (int offset = 0; offset < count; ) {
+                if (buffer.remaining() < Double.BYTES) {
+                    flush();
+                }
+                int length = Math.min(buffer.remaining() / Double.BYTES, count - offset);
+                buffer.asDoubleBuffer().put(values, offset, length);
+                buffer.position(buffer.position() + length * Double.BYTES);
+                offset += length;
+            }
+        }
+
+        void align(int alignment) throws IOException {
+            while (position() % alignment != 0) {
+                put((byte) 0);
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                flushedPosition += channel.write(buffer, flushedPosition);
+            }
+            buffer.clear();
+        }
+    }
+
+    public static final class Reader implements Closeable {
+        private final FileChannel channel;
+        private final int periodCount;
+        private final long labelsOffset;
+        private final long labelsLength;
+        private final List<Column> columns = new ArrayList<>();
+
+        public Reader(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                ByteBuffer header = readFully(channel, 0, HEADER_SIZE);
+                if (header.getInt() != MAGIC) {
+                    throw new IOException("Not a snapshot file: " + file);
+                }
+                int version = header.getInt();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported snapshot version " + version + " in " + file);
+                }
+                periodCount = header.getInt();
+                int columnCount = header.getInt();
+                int directoryLength = header.getInt();
+                header.getInt();
+                labelsLength = header.getLong();
+                labelsOffset = HEADER_SIZE + directoryLength;
+
+                ByteBuffer directory = readFully(channel, HEADER_SIZE, directoryLength);
+                for (int c = 0; c < columnCount; c++) {
+                    byte[] name = new byte[directory.getShort()];
+                    directory.get(name);
+                    byte flags = directory.get();
+                    Encoding encoding = Encoding.values()[directory.get()];
+                    columns.add(new Column(new String(name, StandardCharsets.UTF_8), (flags & FLAG_INPUT) != 0, encoding,
+                            directory.getInt(), directory.getLong(), directory.getLong()));
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        public int getPeriodCount() {
+            return periodCount;
+        }
+
+        public List<String> getColumnNames() {
+            List<String> names = new ArrayList<>();
+            for (Column column : columns) {
+                names.add(column.name);
+            }
+            return names;
+        }
+
+        public List<String> readLabels() throws IOException {
+            return new EncodedLabelList(readFully(channel, labelsOffset, Math.toIntExact(labelsLength)), periodCount);
+        }
+
+        public ColumnReader openColumn(String name) throws IOException {
+            for (Column column : columns) {
+                if (column.name.equals(name)) {
+                    return openColumn(column);
+                }
+            }
+            return null;
+        }
+
+        private ColumnReader openColumn(Column column) throws IOException {
+            return new ColumnReader(channel, column.offset, column.offset + column.length, column.count, column.encoding);
+        }
+
+        private void transferLabels(FileChannel target, long position) throws IOException {
+            for (long copied = 0; copied < labelsLength; ) {
+                copied += channel.transferTo(labelsOffset + copied, labelsLength - copied, target.position(position + copied));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static final class Column {
+        final String name;
+        final boolean input;
+        final Encoding encoding;
+        final int count;
+        final long offset;
+        final long length;
+
+        Column(String name, boolean input, Encoding encoding, int count, long offset, long length) {
+            this.name = name;
+            this.input = input;
+            this.encoding = encoding;
+            this.count = count;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    public static final class ColumnReader {
+        private final FileChannel channel;
+        private final long end;
+        private final int count;
+        private final Encoding encoding;
+        private ByteBuffer window;
+        private long windowStart;
+        private int position;
+        private long previous;
+
+        private ColumnReader(FileChannel channel, long start, long end, int count, Encoding encoding) throws IOException {
+            this.channel = channel;
+            this.end = end;
+            this.count = count;
+            this.encoding = encoding;
+            this.windowStart = start;
+            this.window = ByteBuffer.allocate(0);
+            ensureWindow(1);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void read(double[] values, int offset, int length) throws IOException {
+            int available = Math.max(0, Math.min(length, count - position));
+            switch (encoding) {
+                case RAW:
+                    for (int i = 0; i < available; ) {
+                        ensureWindow(Double.BYTES);
+                        int n = Math.min(available - i, window.remaining() / Double.BYTES);
+                        window.asDoubleBuffer().get(values, offset + i, n);
+                        window.position(window.position() + n * Double.BYTES);
+                        i += n;
+                    }
+                    if (available > 0) {
+                        previous = Double.doubleToRawLongBits(values[offset + available - 1]);
+                    }
+                    break;
+                case XOR:
+                    for (int i = 0; i < available; ) {
+                        ensureWindow(MAX_ENCODED_BYTES);
+                        ByteBuffer data = window;
+                        long bits = previous;
+                        int runEnd = i + Math.max(1, Math.min(available - i, data.remaining() / MAX_ENCODED_BYTES));
+                        for (; i < runEnd; i++) {
+                            int control = data.get() & 0xFF;
+                            if (control != 0) {
+                                int leading = (control >>> 3) & 7;
+                                int trailing = control & 7;
+                                long x = 0;
+                                for (int b = trailing; b < 8 - leading; b++) {
+                                    x |= (data.get() & 0xFFL) << (b << 3);
+                                }
+                                bits ^= x;
+                            }
+                            values[offset + i] = Double.longBitsToDouble(bits);
+                        }
+                        previous = bits;
+                    }
+                    break;
+                case DELTA:
+                    for (int i = 0; i < available; ) {
+                        ensureWindow(MAX_ENCODED_BYTES);
+                        ByteBuffer data = window;
+                        long bits = previous;
+                        int runEnd = i + Math.max(1, Math.min(available - i, data.remaining() / MAX_ENCODED_BYTES));
+                        for (; i < runEnd; i++) {
+                            long zigzag = 0;
+                            int shift = 0;
+                            byte b;
+                            do {
+                                b = data.get();
+                                zigzag |= (b & 0x7FL) << shift;
+                                shift += 7;
+                            } while (b < 0);
+                            bits += (zigzag >>> 1) ^ -(zigzag & 1);
+                            values[offset + i] = Double.longBitsToDouble(bits);
+                        }
+                        previous = bits;
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported encoding " + encoding);
+            }
+            position += available;
+            Arrays.fill(values, offset + available, offset + length, count == 0 ? 0.0 : Double.longBitsToDouble(previous));
+        }
+
+        private void ensureWindow(int needed) throws IOException {
+            if (window.remaining() >= needed || windowStart + window.limit() >= end) {
+                return;
+            }
+            long start = windowStart + window.position();
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(end - start, WINDOW_SIZE)).order(ByteOrder.LITTLE_ENDIAN);
+            windowStart = start;
+        }
+    }
+
+    public static final class MappedWriter implements Closeable {
+        private final FileChannel channel;
+        private final int periodCount;
+        private final long[] offsets;
+        private final DoubleBuffer[] windows;
+        private final long[] windowStarts;
+
+        private MappedWriter(Path file, List<String> names, Reader source) throws IOException {
+            periodCount = source.periodCount;
+            offsets = new long[names.size()];
+            windows = new DoubleBuffer[names.size()];
+            windowStarts = new long[names.size()];
+            byte[][] encodedNames = new byte[names.size()][];
+            int directoryLength = 0;
+            for (int c = 0; c < names.size(); c++) {
+                encodedNames[c] = names.get(c).getBytes(StandardCharsets.UTF_8);
+                directoryLength += ENTRY_FIXED_SIZE + encodedNames[c].length;
+            }
+            long columnBytes = (long) periodCount * Double.BYTES;
+            long position = HEADER_SIZE + directoryLength + source.labelsLength;
+            ByteBuffer directory = ByteBuffer.allocate(directoryLength).order(ByteOrder.LITTLE_ENDIAN);
+            for (int c = 0; c < names.size(); c++) {
+                position = (position + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+                offsets[c] = position;
+                directory.putShort((short) encodedNames[c].length).put(encodedNames[c]).put((byte) 0)
+                        .put((byte) Encoding.RAW.ordinal()).putInt(periodCount).putLong(position).putLong(columnBytes);
+                position += columnBytes;
+            }
+
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putInt(periodCount).putInt(names.size())
+                        .putInt(directoryLength).putInt(0).putLong(source.labelsLength).flip();
+                directory.flip();
+                writeFully(channel, header, 0);
+                writeFully(channel, directory, HEADER_SIZE);
+                source.transferLabels(channel, HEADER_SIZE + directoryLength);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        public void write(int column, int period, double[] values, int length) throws IOException {
+            if (period < 0 || length < 0 || period + length > periodCount) {
+                throw new IndexOutOfBoundsException("Periods " + period + ".." + (period + length) + " outside 0.." + periodCount);
+            }
+            for (int written = 0; written < length; ) {
+                long index = (long) period + written;
+                DoubleBuffer window = windows[column];
+                if (window == null || index < windowStarts[column] || index >= windowStarts[column] + window.capacity()) {
+                    long size = Math.min(periodCount - index, WINDOW_SIZE / Double.BYTES);
+                    window = channel.map(FileChannel.MapMode.READ_WRITE, offsets[column] + index * Double.BYTES, size * Double.BYTES)
+                            .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+                    windows[column] = window;
+                    windowStarts[column] = index;
+                }
+                int n = (int) Math.min(length - written, windowStarts[column] + window.capacity() - index);
+                window.put((int) (index - windowStarts[column]), values, written, n);
+                written += n;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static final class EncodedLabelList extends AbstractList<String> implements RandomAccess {
+        private final IntBuffer offsets;
+        private final ByteBuffer bytes;
+        private final int size;
+
+        EncodedLabelList(ByteBuffer labels, int size) {
+            this.size = size;
+            this.offsets = labels.slice(0, (size + 1) * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            this.bytes = labels.slice((size + 1) * Integer.BYTES, labels.capacity() - (size + 1) * Integer.BYTES);
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            int start = offsets.get(index);
+            byte[] label = new byte[offsets.get(index + 1) - start];
+            bytes.get(start, label);
+            return new String(label, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: SnapshotFile <modelName> <input.txt> <output" + EXTENSION + "> [RAW|XOR|DELTA|AUTO]");
+            System.exit(2);
+        }
+        ConsoleLogSink logSink = new ConsoleLogSink(System.err, false);
+        Controller controller = new Controller(args[0], logSink).readDataFrom(args[1]);
+        controller.writeSnapshot(args[2], args.length > 3 ? Encoding.valueOf(args[3]) : Encoding.AUTO);
+        System.exit(logSink.getErrorCount() == 0 ? 0 : 1);
+    }
+}
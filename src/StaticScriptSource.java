@@ -0,0 +1,53 @@
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+final class StaticScriptSource {
+    private static final Pattern TOP_LEVEL_ASSIGNMENT = Pattern.compile("(?m)^\\s*([A-Za-z_$][\\w$]*)\\s*=(?!=)");
+    private static final Pattern DECLARATION = Pattern.compile("\\b(?:def|var|double\\[\\]|int|double|long|float|boolean|String)\\s+([A-Za-z_$][\\w$]*)\\s*=");
+
+    private StaticScriptSource() {
+    }
+
+    static String wrap(String scriptCode, Map<String, Class<?>> variables) {
+        Set<String> declared = new LinkedHashSet<>();
+        Matcher declaration = DECLARATION.matcher(scriptCode);
+        while (declaration.find()) {
+            declared.add(declaration.group(1));
+        }
+
+        Set<String> outputs = new LinkedHashSet<>();
+        Matcher assignment = TOP_LEVEL_ASSIGNMENT.matcher(scriptCode);
+        while (assignment.find()) {
+            String name = assignment.group(1);
+            if (!variables.containsKey(name) && !declared.contains(name)) {
+                outputs.add(name);
+            }
+        }
+
+        Set<String> referenced = ScriptDependencies.referencedNames(scriptCode, variables.keySet());
+        StringBuilder source = new StringBuilder();
+        for (Map.Entry<String, Class<?>> variable : variables.entrySet()) {
+            String name = variable.getKey();
+            if (!referenced.contains(name)) {
+                continue;
+            }
+            if (variable.getValue() == int.class) {
+                source.append("int ").append(name).append(" = (Integer) binding.getVariable('").append(name).append("'); ");
+            } else if (variable.getValue() == double[].class) {
+                source.append("double[] ").append(name).append(" = (double[]) binding.getVariable('").append(name).append("'); ");
+            }
+        }
+        for (String name : outputs) {
+            source.append("double[] ").append(name).append(" = null; ");
+        }
+
+        source.append(scriptCode).append("\n;");
+        for (String name : outputs) {
+            source.append(" binding.setVariable('").append(name).append("', ").append(name).append(");");
+        }
+        return source.append("\n").toString();
+    }
+}
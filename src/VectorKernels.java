@@ -0,0 +1,79 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+final class VectorKernels implements ModelKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final VectorShuffle<Double> LAST_LANE = VectorShuffle.fromOp(SPECIES, i -> LANES - 1);
+
+    private final boolean prefixScan;
+
+    VectorKernels(boolean prefixScan) {
+        this.prefixScan = prefixScan;
+    }
+
+    @Override
+    public String getName() {
+        return "vector-" + SPECIES.vectorBitSize() + (prefixScan ? " (prefix scan)" : "");
+    }
+
+    @Override
+    public int getScanBlock() {
+        return prefixScan ? LANES : 1;
+    }
+
+    @Override
+    public void multiply(double[] a, double[] b, double[] out, int from, int to) {
+        int i = from;
+        for (int upper = from + SPECIES.loopBound(to - from); i < upper; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).mul(DoubleVector.fromArray(SPECIES, b, i)).intoArray(out, i);
+        }
+        ModelKernels.SCALAR.multiply(a, b, out, i, to);
+    }
+
+    @Override
+    public void multiplyByOnePlus(double[] values, double[] rates, double[] out, int from, int to) {
+        int i = from;
+        for (int upper = from + SPECIES.loopBound(to - from); i < upper; i += LANES) {
+            DoubleVector.fromArray(SPECIES, values, i).mul(DoubleVector.fromArray(SPECIES, rates, i).add(1)).intoArray(out, i);
+        }
+        ModelKernels.SCALAR.multiplyByOnePlus(values, rates, out, i, to);
+    }
+
+    @Override
+    public void subtract(double[] a, double[] b, double[] out, int from, int to) {
+        int i = from;
+        for (int upper = from + SPECIES.loopBound(to - from); i < upper; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).sub(DoubleVector.fromArray(SPECIES, b, i)).intoArray(out, i);
+        }
+        ModelKernels.SCALAR.subtract(a, b, out, i, to);
+    }
+
+    @Override
+    public void accumulateSavings(double[] income, double[] fraction, double[] price, double[] quantity,
+                                  double[] deposit, double[] depositRate, double[] initial, double[] totals, int from, int to) {
+        if (!prefixScan) {
+            ModelKernels.SCALAR.accumulateSavings(income, fraction, price, quantity, deposit, depositRate, initial, totals, from, to);
+            return;
+        }
+        DoubleVector total = DoubleVector.broadcast(SPECIES, totals[from - 1]);
+        int i = from;
+        for (int upper = from + SPECIES.loopBound(to - from); i < upper; i += LANES) {
+            DoubleVector savedIncome = DoubleVector.fromArray(SPECIES, income, i).mul(DoubleVector.fromArray(SPECIES, fraction, i));
+            DoubleVector ethProfit = DoubleVector.fromArray(SPECIES, price, i).sub(DoubleVector.fromArray(SPECIES, price, i - 1))
+                    .mul(DoubleVector.fromArray(SPECIES, quantity, i));
+            DoubleVector bankInterest = DoubleVector.fromArray(SPECIES, deposit, i).mul(DoubleVector.fromArray(SPECIES, depositRate, i));
+            DoubleVector step = savedIncome.add(ethProfit).add(bankInterest).add(DoubleVector.fromArray(SPECIES, initial, i));
+            for (int shift = 1; shift < LANES; shift <<= 1) {
+                step = step.add(step.unslice(shift));
+            }
+            DoubleVector running = step.add(total);
+            running.intoArray(totals, i);
+            total = running.rearrange(LAST_LANE);
+        }
+        if (i < to) {
+            ModelKernels.SCALAR.accumulateSavings(income, fraction, price, quantity, deposit, depositRate, initial, totals, i, to);
+        }
+    }
+}